@@ -1,28 +1,59 @@
 package com.example.barmgtsystem;
 
+import com.example.barmgtsystem.repository.IdGeneratorAlignment;
+import com.example.barmgtsystem.service.OrderService; // Import OrderService
+import com.example.barmgtsystem.service.ReportService; // Import ReportService
 import com.example.barmgtsystem.service.TableService; // Import TableService
+import com.example.barmgtsystem.service.WarmupService;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.lang.management.ManagementFactory;
+
 @SpringBootApplication
 public class BarManagementBackendApplication {
 
 	@Autowired
 	private TableService tableService; // Injeta o TableService
 
+	@Autowired
+	private OrderService orderService; // Injeta o OrderService
+
+	@Autowired
+	private ReportService reportService; // Injeta o ReportService
+
+	@Autowired
+	private IdGeneratorAlignment idGeneratorAlignment;
+
+	@Autowired
+	private WarmupService warmupService;
+
 	public static void main(String[] args) {
+		// Com 1 CPU o agendador das virtual threads (perfil "virtual") teria uma única thread de plataforma, e quem
+		// já recebeu a resposta do banco (segurando a conexão) esperaria na fila atrás de trabalho de CPU. Com duas o
+		// sistema operacional intercala. Tem que vir antes da primeira virtual thread; um -D na linha de comando prevalece.
+		if (System.getProperty("jdk.virtualThreadScheduler.parallelism") == null
+				&& Runtime.getRuntime().availableProcessors() == 1) {
+			System.setProperty("jdk.virtualThreadScheduler.parallelism", "2");
+		}
 		SpringApplication.run(BarManagementBackendApplication.class, args);
 	}
 
 	@Bean
 	public CommandLineRunner run() {
 		return args -> {
+			idGeneratorAlignment.alignWithExistingRows(); // Antes de qualquer item novo: ids de bancos que usavam IDENTITY
 			tableService.initializeTables(20);
 			tableService.startTableStatusMonitoring();
-			System.out.println("Backend application started successfully!");
+			orderService.loadOpenOrders(); // Carrega as comandas abertas em memória
+			reportService.backfillRollupsIfEmpty(); // Preenche os rollups de vendas antigas, se necessário
+			// Tempo desde o início da JVM até mesas e comandas prontas para os terminais
+			System.out.println("Backend application started successfully! Tables and open orders loaded in "
+					+ ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+			warmupService.warmUp(); // A readiness só aceita tráfego se ele terminar sem erro (WarmupHealthIndicator)
 		};
 	}
 }
\ No newline at end of file
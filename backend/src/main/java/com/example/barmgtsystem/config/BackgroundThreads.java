@@ -0,0 +1,32 @@
+package com.example.barmgtsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+// Threads de fundo da aplicação (alertas das mesas, envio dos eventos SSE, impressoras).
+// No modo virtual (perfil "virtual": spring.threads.virtual.enabled=true em Java 21+) elas também são
+// virtual threads, como as das requisições; caso contrário, threads de plataforma daemon com nome.
+@Component
+public class BackgroundThreads {
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreadsEnabled;
+
+    // Mesma condição do Spring Boot para ligar as virtual threads do Tomcat
+    public boolean isVirtual() {
+        return virtualThreadsEnabled && Runtime.version().feature() >= 21;
+    }
+
+    public ThreadFactory newThreadFactory(String name) {
+        if (isVirtual()) {
+            return new VirtualThreadTaskExecutor(name + "-").getVirtualThreadFactory();
+        }
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(name + "-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
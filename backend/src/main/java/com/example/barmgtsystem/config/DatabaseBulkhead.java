@@ -0,0 +1,104 @@
+package com.example.barmgtsystem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Limita quantas requisições usam o banco ao mesmo tempo (uma licença por conexão aberta, devolvida no close).
+// No modo virtual não há mais as 200 threads do Tomcat segurando a fila: sem este limite, centenas de virtual
+// threads disputam as conexões do Hikari, que não atende por ordem de chegada, e as mais azaradas estouram o
+// connection-timeout. Aqui elas esperam numa fila justa (FIFO), estacionadas sem ocupar thread de plataforma.
+// Ligado com bar.db.bulkhead.enabled=true (perfil "virtual").
+@Component
+public class DatabaseBulkhead implements BeanPostProcessor {
+
+    @Value("${bar.db.bulkhead.enabled:false}")
+    private boolean enabled;
+    // Mesmo número de conexões do pool: quem passa pela fila sempre encontra conexão livre
+    @Value("${bar.db.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int permits;
+    // Espera máxima na fila antes de falhar a requisição
+    @Value("${bar.db.bulkhead.max-wait-ms:30000}")
+    private long maxWaitMs;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof BulkheadDataSource) {
+            return bean;
+        }
+        return new BulkheadDataSource(dataSource, new Semaphore(permits, true), maxWaitMs);
+    }
+
+    private static final class BulkheadDataSource extends DelegatingDataSource {
+        private final Semaphore permits;
+        private final long maxWaitMs;
+
+        private BulkheadDataSource(DataSource target, Semaphore permits, long maxWaitMs) {
+            super(target);
+            this.permits = permits;
+            this.maxWaitMs = maxWaitMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            return guarded(() -> super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            return guarded(() -> super.getConnection(username, password));
+        }
+
+        private void acquire() throws SQLException {
+            try {
+                if (!permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS)) {
+                    throw new SQLTransientConnectionException("Database bulkhead full: no connection within " + maxWaitMs + " ms");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLTransientConnectionException("Interrupted waiting for a database connection", e);
+            }
+        }
+
+        // A licença volta no primeiro close da conexão (ou já, se o pool falhar ao entregá-la)
+        private Connection guarded(ConnectionSupplier supplier) throws SQLException {
+            Connection connection;
+            try {
+                connection = supplier.get();
+            } catch (SQLException | RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            AtomicBoolean released = new AtomicBoolean(false);
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                                permits.release();
+                            }
+                        }
+                    });
+        }
+    }
+
+    private interface ConnectionSupplier {
+        Connection get() throws SQLException;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.barmgtsystem.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Contagem dos comandos SQL enviados ao banco pela thread corrente: quantos, quantas linhas lidas e o tempo
+// gasto no JDBC. Alimentada pelo DataSource instrumentado (SqlStatisticsDataSourceWrapper); quem quer medir
+// abre um escopo (uma requisição HTTP, um teste) e lê o resultado ao final. Escopos podem ser aninhados:
+// cada comando conta em todos os escopos abertos da thread. Sem escopo aberto nada é contado.
+public final class SqlStatistics {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatistics() {
+    }
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void statementStarted() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.statementStart = System.nanoTime();
+        }
+    }
+
+    static void statementFinished(String sql) {
+        Scope current = CURRENT.get();
+        if (current == null) {
+            return;
+        }
+        long nanos = System.nanoTime() - current.statementStart;
+        for (Scope scope = current; scope != null; scope = scope.parent) {
+            scope.statements++;
+            scope.jdbcNanos += nanos;
+            scope.executionsBySql.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void rowRead() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope parent;
+        private final Map<String, Integer> executionsBySql = new HashMap<>();
+        private int statements;
+        private long rows;
+        private long jdbcNanos;
+        private long statementStart;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        // Execuções (idas ao banco); um lote JDBC conta uma vez
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getRows() {
+            return rows;
+        }
+
+        public Duration getJdbcTime() {
+            return Duration.ofNanos(jdbcNanos);
+        }
+
+        // Comandos idênticos executados pelo menos "threshold" vezes no escopo: o sinal de N+1
+        // (uma consulta por linha do resultado em vez de uma para todas)
+        public Map<String, Integer> getRepeatedStatements(int threshold) {
+            Map<String, Integer> repeated = new LinkedHashMap<>();
+            executionsBySql.forEach((sql, count) -> {
+                if (count >= threshold) {
+                    repeated.put(sql, count);
+                }
+            });
+            return repeated;
+        }
+
+        @Override
+        public void close() {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.barmgtsystem.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.util.List;
+
+// Envolve o DataSource da aplicação (o pool do Hikari continua por baixo) para alimentar o SqlStatistics:
+// cada comando executado e cada linha lida dos ResultSets. Fora de um escopo aberto o custo é só a
+// consulta ao ThreadLocal. Desligado com bar.sql.statistics.enabled=false.
+@Component
+public class SqlStatisticsDataSourceWrapper implements BeanPostProcessor {
+
+    @Value("${bar.sql.statistics.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (!enabled || !(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource) {
+            return bean;
+        }
+        return ProxyDataSourceBuilder.create(beanName, dataSource)
+                .listener(new StatementListener())
+                .proxyResultSet() // Necessário para contar as linhas lidas
+                .methodListener(new RowListener())
+                .build();
+    }
+
+    private static class StatementListener implements QueryExecutionListener {
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            SqlStatistics.statementStarted();
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            if (!queryInfoList.isEmpty()) {
+                SqlStatistics.statementFinished(queryInfoList.get(0).getQuery());
+            }
+        }
+    }
+
+    private static class RowListener implements MethodExecutionListener {
+
+        @Override
+        public void beforeMethod(MethodExecutionContext executionContext) {
+        }
+
+        @Override
+        public void afterMethod(MethodExecutionContext executionContext) {
+            if (SqlStatistics.isActive()
+                    && executionContext.getTarget() instanceof ResultSet
+                    && executionContext.getMethod().getName().equals("next")
+                    && Boolean.TRUE.equals(executionContext.getResult())) {
+                SqlStatistics.rowRead();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.barmgtsystem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+// Comandos SQL, linhas lidas e tempo de JDBC de cada requisição HTTP, por endpoint (bar.sql.* em
+// /actuator/prometheus). Sinaliza no log o endpoint que repete o mesmo comando várias vezes na mesma
+// requisição: o número de consultas está crescendo com o tamanho do resultado (N+1).
+@Component
+public class SqlStatisticsFilter extends OncePerRequestFilter {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Execuções do mesmo comando na mesma requisição a partir das quais o endpoint é sinalizado
+    @Value("${bar.sql.repeated-statement-threshold:5}")
+    private int repeatedStatementThreshold;
+
+    @Value("${bar.sql.statistics.enabled:true}")
+    private boolean enabled;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                return; // Respostas em streaming (SSE, CSV) continuam em outra thread: a contagem ficaria incompleta
+            }
+            record(request, scope);
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics.Scope scope) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        String method = request.getMethod();
+
+        DistributionSummary.builder("bar.sql.statements")
+                .tags("method", method, "uri", uri)
+                .description("Comandos SQL por requisição")
+                .register(meterRegistry)
+                .record(scope.getStatements());
+        DistributionSummary.builder("bar.sql.rows")
+                .tags("method", method, "uri", uri)
+                .description("Linhas lidas do banco por requisição")
+                .baseUnit("rows")
+                .register(meterRegistry)
+                .record(scope.getRows());
+        Timer.builder("bar.sql.time")
+                .tags("method", method, "uri", uri)
+                .description("Tempo gasto no JDBC por requisição")
+                .register(meterRegistry)
+                .record(scope.getJdbcTime());
+
+        Map<String, Integer> repeated = scope.getRepeatedStatements(repeatedStatementThreshold);
+        if (!repeated.isEmpty()) {
+            Counter.builder("bar.sql.repeated")
+                    .tags("method", method, "uri", uri)
+                    .description("Requisições com o mesmo comando SQL repetido (provável N+1)")
+                    .register(meterRegistry)
+                    .increment();
+            repeated.forEach((sql, count) -> System.out.println("Possible N+1 in " + method + " " + uri + ": "
+                    + count + " executions of [" + sql + "] (" + scope.getStatements() + " statements, "
+                    + scope.getRows() + " rows)"));
+        }
+    }
+}
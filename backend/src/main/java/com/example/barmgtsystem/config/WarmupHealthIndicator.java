@@ -0,0 +1,33 @@
+package com.example.barmgtsystem.config;
+
+import com.example.barmgtsystem.enums.WarmupState;
+import com.example.barmgtsystem.service.WarmupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+// Resultado do aquecimento no grupo de readiness (componente "warmup"): OUT_OF_SERVICE (503) enquanto ele roda ou
+// se um caminho quente falhou, DEGRADED (200) se parou no limite de tempo sem p99 estável, UP quando estabilizou.
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    public static final Status DEGRADED = new Status("DEGRADED", "Warm-up stopped at the time limit without stable p99");
+
+    @Autowired
+    private WarmupService warmupService;
+
+    @Override
+    public Health health() {
+        WarmupState state = warmupService.getState();
+        Health.Builder builder = switch (state) {
+            case STABLE, DISABLED -> Health.up();
+            case UNSTABLE -> Health.status(DEGRADED);
+            case NOT_STARTED, RUNNING, FAILED -> Health.outOfService();
+        };
+        return builder.withDetail("state", state)
+                .withDetail("p99Ms", warmupService.getLastP99())
+                .build();
+    }
+}
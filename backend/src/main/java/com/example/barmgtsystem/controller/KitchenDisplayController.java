@@ -0,0 +1,66 @@
+package com.example.barmgtsystem.controller;
+
+import com.example.barmgtsystem.dto.KitchenDisplayTicket;
+import com.example.barmgtsystem.dto.ProductPrepTime;
+import com.example.barmgtsystem.enums.KitchenStation;
+import com.example.barmgtsystem.service.KitchenDisplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/kitchen")
+public class KitchenDisplayController {
+
+    @Autowired
+    private KitchenDisplayService kitchenDisplayService;
+
+    // Fila atual da estação (KITCHEN ou BAR)
+    @GetMapping("/{station}/tickets")
+    public List<KitchenDisplayTicket> getBoard(@PathVariable KitchenStation station) {
+        return kitchenDisplayService.getBoard(station);
+    }
+
+    // Stream SSE: fila inteira (e a cada reconexão) seguida apenas dos tickets alterados ou removidos
+    @GetMapping(value = "/{station}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBoard(@PathVariable KitchenStation station) {
+        return kitchenDisplayService.subscribe(station);
+    }
+
+    @PostMapping("/tickets/{ticketId}/acknowledge")
+    public ResponseEntity<KitchenDisplayTicket> acknowledge(@PathVariable Long ticketId) {
+        try {
+            return ResponseEntity.ok(kitchenDisplayService.acknowledge(ticketId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
+        }
+    }
+
+    @PostMapping("/tickets/{ticketId}/bump")
+    public ResponseEntity<KitchenDisplayTicket> bump(@PathVariable Long ticketId) {
+        try {
+            return ResponseEntity.ok(kitchenDisplayService.bump(ticketId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
+        }
+    }
+
+    // Tempo de preparo por produto; sem datas, os últimos 30 dias
+    @GetMapping("/prep-times")
+    public ResponseEntity<List<ProductPrepTime>> getPrepTimes(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(30);
+        if (end.isBefore(start)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(kitchenDisplayService.getPrepTimes(start, end));
+    }
+}
@@ -1,14 +1,17 @@
 package com.example.barmgtsystem.controller;
 
+import com.example.barmgtsystem.dto.OrderItemOperation;
 import com.example.barmgtsystem.model.Order;
 import com.example.barmgtsystem.model.OrderItem;
 import com.example.barmgtsystem.enums.PaymentMethod; // Importar o enum PaymentMethod
 import com.example.barmgtsystem.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -42,6 +45,26 @@ public class OrderController {
         try {
             Order updatedOrder = orderService.addItemToOrder(orderId, productId, quantity);
             return ResponseEntity.ok(updatedOrder);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
+        }
+    }
+
+    // Lote de operações (ADD / SET_QUANTITY / REMOVE) aplicado em uma única transação, ex.: uma rodada inteira de bebidas
+    @PostMapping("/{orderId}/items/batch")
+    public ResponseEntity<Order> applyItemOperations(@PathVariable String orderId,
+                                                     @RequestBody List<OrderItemOperation> operations) {
+        if (operations == null || operations.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        try {
+            Order updatedOrder = orderService.applyItemOperations(orderId, operations);
+            return ResponseEntity.ok(updatedOrder);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
         }
@@ -53,6 +76,8 @@ public class OrderController {
         try {
             Order updatedOrder = orderService.removeItemFromOrder(orderId, orderItemId);
             return ResponseEntity.ok(updatedOrder);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
         }
@@ -70,6 +95,8 @@ public class OrderController {
         try {
             Order updatedOrder = orderService.updateOrderItemQuantity(orderId, orderItemId, newQuantity);
             return ResponseEntity.ok(updatedOrder);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(null); // Ou um DTO de erro
         }
@@ -89,6 +116,8 @@ public class OrderController {
         try {
             orderService.closeOrder(orderId, paymentMethod);
             return ResponseEntity.ok().build(); // Retorna 200 OK sem corpo
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Ou um DTO de erro
         }
@@ -99,6 +128,8 @@ public class OrderController {
         try {
             orderService.cancelOrder(orderId);
             return ResponseEntity.ok().build(); // Retorna 200 OK sem corpo
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(null); // Comanda alterada em outro terminal ou lock no banco; tentativas esgotadas
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(null); // Ou um DTO de erro
         }
@@ -0,0 +1,24 @@
+package com.example.barmgtsystem.controller;
+
+import com.example.barmgtsystem.dto.PrinterStatus;
+import com.example.barmgtsystem.service.PrintSpoolerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/printers")
+public class PrinterController {
+
+    @Autowired
+    private PrintSpoolerService printSpooler;
+
+    // Situação das filas de impressão (cozinha e caixa)
+    @GetMapping
+    public List<PrinterStatus> getPrinterStatuses() {
+        return printSpooler.getPrinterStatuses();
+    }
+}
@@ -1,13 +1,16 @@
 package com.example.barmgtsystem.controller;
 
 import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.service.CatalogService;
 import com.example.barmgtsystem.service.ProductCategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -16,10 +19,21 @@ public class ProductCategoryController {
 
     @Autowired
     private ProductCategoryService categoryService;
+    @Autowired
+    private CatalogService catalogService;
 
     @GetMapping
-    public List<ProductCategory> getAllCategories() {
-        return categoryService.getAllCategories();
+    public ResponseEntity<byte[]> getAllCategories(WebRequest request) {
+        // Mesmo snapshot versionado dos produtos: 304 quando o cliente já tem a versão atual
+        CatalogService.CatalogSnapshot snapshot = catalogService.getSnapshot();
+        if (request.checkNotModified(snapshot.getETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getCategoriesJson());
     }
 
     @GetMapping("/{id}")
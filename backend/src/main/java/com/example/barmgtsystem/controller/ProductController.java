@@ -4,12 +4,15 @@ import com.example.barmgtsystem.model.Product; // Importa a classe Product
 import com.example.barmgtsystem.model.ProductCategory; // Importa a classe ProductCategory
 import com.example.barmgtsystem.service.ProductService; // Importa o serviço ProductService
 import com.example.barmgtsystem.service.ProductCategoryService; // Importa o serviço ProductCategoryService (necessário para buscar categoria por nome)
+import com.example.barmgtsystem.service.CatalogService; // Snapshot pré-serializado do catálogo
 import org.springframework.beans.factory.annotation.Autowired; // Anotação para injeção de dependências
+import org.springframework.http.CacheControl; // Para o cabeçalho Cache-Control
 import org.springframework.http.HttpStatus; // Para códigos de status HTTP
+import org.springframework.http.MediaType; // Para o Content-Type da resposta
 import org.springframework.http.ResponseEntity; // Para construir respostas HTTP
 import org.springframework.web.bind.annotation.*; // Anotações para mapeamento de requisições web
+import org.springframework.web.context.request.WebRequest; // Para tratar o If-None-Match
 
-import java.util.List;
 import java.util.Optional;
 
 @RestController // Indica que esta classe é um controlador REST
@@ -20,6 +23,8 @@ public class ProductController {
     private ProductService productService;
     @Autowired // Injeta o ProductCategoryService para buscar categorias
     private ProductCategoryService categoryService;
+    @Autowired // Injeta o snapshot do catálogo
+    private CatalogService catalogService;
 
     // DTO (Data Transfer Object) para receber dados do produto do frontend.
     // O frontend envia a categoria como uma string, não como um objeto ProductCategory completo.
@@ -31,8 +36,17 @@ public class ProductController {
     }
 
     @GetMapping // Mapeia requisições GET para /api/products
-    public List<Product> getAllProducts() {
-        return productService.getAllProducts();
+    public ResponseEntity<byte[]> getAllProducts(WebRequest request) {
+        // Serve o JSON pré-serializado; se o cliente já tem esta versão, responde 304 sem corpo
+        CatalogService.CatalogSnapshot snapshot = catalogService.getSnapshot();
+        if (request.checkNotModified(snapshot.getETag())) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(snapshot.getETag())
+                .cacheControl(CacheControl.noCache()) // Sempre revalida, mas sem baixar de novo
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.getProductsJson());
     }
 
     @GetMapping("/{id}") // Mapeia requisições GET para /api/products/{id}
@@ -1,13 +1,23 @@
 package com.example.barmgtsystem.controller;
 
+import com.example.barmgtsystem.dto.SaleSearchCriteria;
+import com.example.barmgtsystem.dto.SalesPage;
+import com.example.barmgtsystem.model.DayClosing;
 import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.model.SalesDailyPaymentRollup;
+import com.example.barmgtsystem.model.SalesHourlyProductRollup;
 import com.example.barmgtsystem.service.ReportService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -18,9 +28,29 @@ public class ReportController {
     @Autowired
     private ReportService reportService;
 
+    // Ex.: /api/reports/sales?from=2025-06-01&to=2025-06-30&paymentMethod=PIX&product=cerveja&sort=amount&direction=desc&limit=50
+    // Para a próxima página, repita os mesmos filtros com cursor=<nextCursor>
     @GetMapping("/sales")
-    public List<Sale> getAllSales() {
-        return reportService.getAllSales();
+    public ResponseEntity<SalesPage> searchSales(SaleSearchCriteria criteria) {
+        try {
+            return ResponseEntity.ok(reportService.searchSales(criteria));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // CSV das vendas do período (datas inclusivas), gerado enquanto é enviado: serve para exportar o ano inteiro
+    @GetMapping("/sales/export")
+    public ResponseEntity<StreamingResponseBody> exportSales(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (to.isBefore(from)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> reportService.exportSalesCsv(from, to, out);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"relatorio_vendas_" + from + "_" + to + ".csv\"")
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .body(body);
     }
 
     @GetMapping("/sales/by-date")
@@ -33,8 +63,51 @@ public class ReportController {
         try {
             reportService.cancelSale(saleId);
             return ResponseEntity.noContent().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Venda de um dia já fechado
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
         }
     }
-}
\ No newline at end of file
+
+    // Fecha o dia informado (padrão: hoje) e devolve o relatório Z congelado
+    @PostMapping("/day-close")
+    public ResponseEntity<DayClosing> closeDay(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            DayClosing closing = reportService.closeDay(date != null ? date : LocalDate.now());
+            return ResponseEntity.status(HttpStatus.CREATED).body(closing);
+        } catch (IllegalStateException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build(); // Dia já fechado
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/day-close/{date}")
+    public ResponseEntity<DayClosing> getDayClosing(@PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return reportService.getDayClosing(date)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Rollups por hora x produto (datas inclusivas), custo proporcional ao número de buckets
+    @GetMapping("/rollups/hourly-products")
+    public List<SalesHourlyProductRollup> getHourlyProductRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.getHourlyProductRollups(from, to);
+    }
+
+    // Rollups por dia x método de pagamento (datas inclusivas)
+    @GetMapping("/rollups/daily-payments")
+    public List<SalesDailyPaymentRollup> getDailyPaymentRollups(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return reportService.getDailyPaymentRollups(from, to);
+    }
+
+    // Recalcula os rollups a partir de todas as vendas
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        reportService.rebuildRollups();
+        return ResponseEntity.noContent().build();
+    }
+}
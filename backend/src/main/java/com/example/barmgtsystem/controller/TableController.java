@@ -1,11 +1,14 @@
 package com.example.barmgtsystem.controller;
 
 import com.example.barmgtsystem.model.RestaurantTable; // Atualizado
+import com.example.barmgtsystem.service.TableEventService;
 import com.example.barmgtsystem.service.TableService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,12 +19,20 @@ public class TableController {
 
     @Autowired
     private TableService tableService;
+    @Autowired
+    private TableEventService tableEventService;
 
     @GetMapping
     public List<RestaurantTable> getAllTables() { // Atualizado
         return tableService.getAllTables();
     }
 
+    // Stream SSE: snapshot inicial (e a cada reconexão) seguido apenas das mesas alteradas
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamTables() {
+        return tableEventService.subscribe(tableService::getAllTables);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<RestaurantTable> getTableById(@PathVariable Long id) { // Atualizado
         Optional<RestaurantTable> table = tableService.getTableById(id); // Atualizado
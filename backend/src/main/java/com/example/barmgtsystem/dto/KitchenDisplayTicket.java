@@ -0,0 +1,121 @@
+package com.example.barmgtsystem.dto;
+
+import com.example.barmgtsystem.enums.KitchenStation;
+import com.example.barmgtsystem.enums.KitchenTicketStatus;
+
+import java.time.LocalDateTime;
+
+// Ticket exibido na tela de preparo: um produto de uma comanda, na quantidade ainda a preparar.
+// As instâncias publicadas não são alteradas; cada mudança gera uma cópia nova.
+public class KitchenDisplayTicket {
+    private Long id;
+    private KitchenStation station;
+    private String orderId;
+    private Long tableId;
+    private String productId;
+    private String productName;
+    private int quantity;
+    private KitchenTicketStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime acknowledgedAt;
+
+    // Construtor padrão
+    public KitchenDisplayTicket() {
+    }
+
+    // Construtor com todos os argumentos
+    public KitchenDisplayTicket(Long id, KitchenStation station, String orderId, Long tableId, String productId, String productName, int quantity, KitchenTicketStatus status, LocalDateTime createdAt, LocalDateTime acknowledgedAt) {
+        this.id = id;
+        this.station = station;
+        this.orderId = orderId;
+        this.tableId = tableId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.acknowledgedAt = acknowledgedAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public KitchenStation getStation() {
+        return station;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public KitchenTicketStatus getStatus() {
+        return status;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getAcknowledgedAt() {
+        return acknowledgedAt;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setStation(KitchenStation station) {
+        this.station = station;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public void setStatus(KitchenTicketStatus status) {
+        this.status = status;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setAcknowledgedAt(LocalDateTime acknowledgedAt) {
+        this.acknowledgedAt = acknowledgedAt;
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.barmgtsystem.dto;
+
+import com.example.barmgtsystem.enums.OrderItemOperationType;
+
+// Uma operação de um lote de alterações na comanda:
+// ADD usa productId + quantity, SET_QUANTITY usa orderItemId + quantity e REMOVE usa orderItemId.
+public class OrderItemOperation {
+    private OrderItemOperationType type;
+    private String productId;
+    private Long orderItemId;
+    private Integer quantity;
+
+    // Construtor padrão
+    public OrderItemOperation() {
+    }
+
+    // Construtor com todos os argumentos
+    public OrderItemOperation(OrderItemOperationType type, String productId, Long orderItemId, Integer quantity) {
+        this.type = type;
+        this.productId = productId;
+        this.orderItemId = orderItemId;
+        this.quantity = quantity;
+    }
+
+    // Getters
+    public OrderItemOperationType getType() {
+        return type;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public Long getOrderItemId() {
+        return orderItemId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    // Setters
+    public void setType(OrderItemOperationType type) {
+        this.type = type;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public void setOrderItemId(Long orderItemId) {
+        this.orderItemId = orderItemId;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.barmgtsystem.dto;
+
+// Situação de uma impressora do spooler: tickets na fila, excedentes esperando vaga na fila (impressora parada
+// ou lenta; acima de zero pede atenção), impressos e que falharam após as tentativas.
+public class PrinterStatus {
+    private String name;
+    private boolean enabled;
+    private int queued;
+    private int overflow;
+    private long printed;
+    private long failed;
+
+    // Construtor padrão
+    public PrinterStatus() {
+    }
+
+    // Construtor com todos os argumentos
+    public PrinterStatus(String name, boolean enabled, int queued, int overflow, long printed, long failed) {
+        this.name = name;
+        this.enabled = enabled;
+        this.queued = queued;
+        this.overflow = overflow;
+        this.printed = printed;
+        this.failed = failed;
+    }
+
+    // Getters
+    public String getName() {
+        return name;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int getQueued() {
+        return queued;
+    }
+
+    public int getOverflow() {
+        return overflow;
+    }
+
+    public long getPrinted() {
+        return printed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    // Setters
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setQueued(int queued) {
+        this.queued = queued;
+    }
+
+    public void setOverflow(int overflow) {
+        this.overflow = overflow;
+    }
+
+    public void setPrinted(long printed) {
+        this.printed = printed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+}
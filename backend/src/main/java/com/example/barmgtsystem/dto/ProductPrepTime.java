@@ -0,0 +1,66 @@
+package com.example.barmgtsystem.dto;
+
+
+// Tempo de preparo de um produto no período: do pedido até o ticket sair da tela (bump)
+public class ProductPrepTime {
+    private String productId;
+    private String productName;
+    private Long ticketCount;
+    private Double averagePrepSeconds;
+    private Long maxPrepSeconds;
+
+    // Construtor padrão
+    public ProductPrepTime() {
+    }
+
+    // Construtor com todos os argumentos
+    public ProductPrepTime(String productId, String productName, Long ticketCount, Double averagePrepSeconds, Long maxPrepSeconds) {
+        this.productId = productId;
+        this.productName = productName;
+        this.ticketCount = ticketCount;
+        this.averagePrepSeconds = averagePrepSeconds;
+        this.maxPrepSeconds = maxPrepSeconds;
+    }
+
+    // Getters
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public Long getTicketCount() {
+        return ticketCount;
+    }
+
+    public Double getAveragePrepSeconds() {
+        return averagePrepSeconds;
+    }
+
+    public Long getMaxPrepSeconds() {
+        return maxPrepSeconds;
+    }
+
+    // Setters
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public void setTicketCount(Long ticketCount) {
+        this.ticketCount = ticketCount;
+    }
+
+    public void setAveragePrepSeconds(Double averagePrepSeconds) {
+        this.averagePrepSeconds = averagePrepSeconds;
+    }
+
+    public void setMaxPrepSeconds(Long maxPrepSeconds) {
+        this.maxPrepSeconds = maxPrepSeconds;
+    }
+}
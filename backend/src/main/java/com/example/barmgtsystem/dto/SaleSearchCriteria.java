@@ -0,0 +1,122 @@
+package com.example.barmgtsystem.dto;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+// Filtros da consulta de vendas (parâmetros de GET /api/reports/sales). Todos são opcionais.
+public class SaleSearchCriteria {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from; // Data inicial (inclusiva)
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to; // Data final (inclusiva)
+    private PaymentMethod paymentMethod;
+    private String product; // Trecho do nome de um produto vendido
+    private Double minAmount;
+    private Double maxAmount;
+    private String sort; // "date" (padrão) ou "amount"
+    private String direction; // "desc" (padrão) ou "asc"
+    private Integer limit; // Tamanho da página
+    private String cursor; // nextCursor da página anterior
+
+    // Construtor padrão
+    public SaleSearchCriteria() {
+    }
+
+    // Construtor com todos os argumentos
+    public SaleSearchCriteria(LocalDate from, LocalDate to, PaymentMethod paymentMethod, String product, Double minAmount, Double maxAmount, String sort, String direction, Integer limit, String cursor) {
+        this.from = from;
+        this.to = to;
+        this.paymentMethod = paymentMethod;
+        this.product = product;
+        this.minAmount = minAmount;
+        this.maxAmount = maxAmount;
+        this.sort = sort;
+        this.direction = direction;
+        this.limit = limit;
+        this.cursor = cursor;
+    }
+
+    // Getters
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public String getProduct() {
+        return product;
+    }
+
+    public Double getMinAmount() {
+        return minAmount;
+    }
+
+    public Double getMaxAmount() {
+        return maxAmount;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public String getDirection() {
+        return direction;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    // Setters
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public void setProduct(String product) {
+        this.product = product;
+    }
+
+    public void setMinAmount(Double minAmount) {
+        this.minAmount = minAmount;
+    }
+
+    public void setMaxAmount(Double maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+
+    public void setDirection(String direction) {
+        this.direction = direction;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.barmgtsystem.dto;
+
+import com.example.barmgtsystem.model.Sale;
+
+import java.util.List;
+
+// Uma página da consulta de vendas. nextCursor é null na última página.
+public class SalesPage {
+    private List<Sale> content;
+    private String nextCursor;
+
+    // Construtor padrão
+    public SalesPage() {
+    }
+
+    // Construtor com todos os argumentos
+    public SalesPage(List<Sale> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters
+    public List<Sale> getContent() {
+        return content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    // Setters
+    public void setContent(List<Sale> content) {
+        this.content = content;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
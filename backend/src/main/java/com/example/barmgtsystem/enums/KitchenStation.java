@@ -0,0 +1,7 @@
+package com.example.barmgtsystem.enums;
+
+// Tela de preparo: itens com sendToKitchen vão para a cozinha, os demais para o bar
+public enum KitchenStation {
+    KITCHEN,
+    BAR
+}
@@ -0,0 +1,6 @@
+package com.example.barmgtsystem.enums;
+
+public enum KitchenTicketStatus {
+    NEW,
+    ACKNOWLEDGED
+}
@@ -0,0 +1,7 @@
+package com.example.barmgtsystem.enums;
+
+public enum OrderItemOperationType {
+    ADD,
+    SET_QUANTITY,
+    REMOVE
+}
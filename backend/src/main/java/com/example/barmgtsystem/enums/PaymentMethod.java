@@ -1,8 +1,19 @@
 package com.example.barmgtsystem.enums;
 
 public enum PaymentMethod {
-    CASH,
-    PIX,
-    DEBIT,
-    CREDIT
-}
\ No newline at end of file
+    CASH("Dinheiro"),
+    PIX("Pix"),
+    DEBIT("Cartão de Débito"),
+    CREDIT("Cartão de Crédito");
+
+    // Mesmos nomes usados na tela de relatórios: CSV de vendas e recibo impresso
+    private final String displayName;
+
+    PaymentMethod(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
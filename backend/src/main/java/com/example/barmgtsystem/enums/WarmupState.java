@@ -0,0 +1,10 @@
+package com.example.barmgtsystem.enums;
+
+public enum WarmupState {
+    NOT_STARTED,
+    RUNNING,
+    STABLE,
+    UNSTABLE,
+    FAILED,
+    DISABLED
+}
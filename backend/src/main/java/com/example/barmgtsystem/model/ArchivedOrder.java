@@ -0,0 +1,74 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import com.example.barmgtsystem.enums.OrderStatus;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+// Comanda fechada (PAID ou CANCELED) movida da tabela orders pelo ArchiveService.
+// Mesmas colunas de orders; as linhas só são gravadas pelo ArchiveWriter (INSERT ... SELECT).
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+        // Comandas canceladas por período no fechamento do dia
+        @Index(name = "idx_orders_archive_end_time", columnList = "end_time")
+})
+public class ArchivedOrder {
+    @Id
+    private String id;
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+    @Column(name = "start_time", nullable = false)
+    private LocalDateTime startTime;
+    @Column(name = "end_time")
+    private LocalDateTime endTime;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OrderStatus status;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method")
+    private PaymentMethod paymentMethod;
+    @Column(nullable = false)
+    private long version;
+
+    // Construtor padrão
+    public ArchivedOrder() {
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public LocalDateTime getStartTime() {
+        return startTime;
+    }
+
+    public LocalDateTime getEndTime() {
+        return endTime;
+    }
+
+    public OrderStatus getStatus() {
+        return status;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+// Item de uma comanda arquivada (ver ArchivedOrder). Mesmas colunas de order_items.
+@Entity
+@Immutable
+@Table(name = "order_items_archive", indexes = {
+        @Index(name = "idx_order_items_archive_order_id", columnList = "order_id")
+})
+public class ArchivedOrderItem {
+    @Id
+    private Long id;
+    @Column(name = "order_id", nullable = false)
+    private String orderId;
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+    @Column(nullable = false)
+    private int quantity;
+    @Column(name = "price_at_order", nullable = false)
+    private double priceAtOrder;
+    @Column(name = "send_to_kitchen", nullable = false)
+    private boolean sendToKitchen;
+
+    // Construtor padrão
+    public ArchivedOrderItem() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public double getPriceAtOrder() {
+        return priceAtOrder;
+    }
+
+    public boolean isSendToKitchen() {
+        return sendToKitchen;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Venda movida da tabela sales pelo ArchiveService. Mesmas colunas e índices de sales; os relatórios
+// leem as duas tabelas e devolvem as vendas arquivadas como Sale (toSale).
+@Entity
+@Immutable
+@Table(name = "sales_archive", indexes = {
+        @Index(name = "idx_sales_archive_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_sales_archive_total_amount_id", columnList = "total_amount, id")
+})
+public class ArchivedSale {
+    @Id
+    private String id;
+    @Column(name = "order_id")
+    private String orderId;
+    @Column(name = "table_id", nullable = false)
+    private Long tableId;
+
+    @OneToMany
+    @JoinColumn(name = "sale_id", nullable = false, insertable = false, updatable = false)
+    private List<ArchivedSaleItem> items;
+
+    @Column(name = "total_amount", nullable = false)
+    private double totalAmount;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+
+    // Construtor padrão
+    public ArchivedSale() {
+    }
+
+    // Cópia desanexada no formato da venda ativa; os itens precisam ter sido carregados na mesma consulta
+    public Sale toSale() {
+        List<SaleItem> saleItems = new ArrayList<>(items.size());
+        for (ArchivedSaleItem item : items) {
+            saleItems.add(new SaleItem(item.getId(), item.getProductId(), item.getProductName(), item.getPriceAtSale(),
+                    item.getQuantity(), item.isSendToKitchen()));
+        }
+        return new Sale(id, orderId, tableId, saleItems, totalAmount, paymentMethod, timestamp);
+    }
+
+    // Getters
+    public String getId() {
+        return id;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public List<ArchivedSaleItem> getItems() {
+        return items;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+// Item de uma venda arquivada (ver ArchivedSale). Mesmas colunas de sale_items.
+@Entity
+@Immutable
+@Table(name = "sale_items_archive")
+public class ArchivedSaleItem {
+    @Id
+    private Long id;
+
+    @Column(name = "product_id")
+    private String productId;
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+    @Column(name = "price_at_sale", nullable = false)
+    private double priceAtSale;
+    @Column(nullable = false)
+    private int quantity;
+    @Column(name = "send_to_kitchen", nullable = false)
+    private boolean sendToKitchen;
+
+    // Construtor padrão
+    public ArchivedSaleItem() {
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public double getPriceAtSale() {
+        return priceAtSale;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public boolean isSendToKitchen() {
+        return sendToKitchen;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Fechamento do dia (relatório Z): totais congelados no momento do fechamento.
+// Imutável: o Hibernate nunca gera UPDATE para esta entidade e um dia só pode ser fechado uma vez.
+@Entity
+@Immutable
+@Table(name = "day_closings",
+        uniqueConstraints = @UniqueConstraint(name = "uk_day_closing_business_date", columnNames = "business_date"))
+public class DayClosing {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "business_date", nullable = false, updatable = false)
+    private LocalDate businessDate;
+    @Column(name = "closed_at", nullable = false, updatable = false)
+    private LocalDateTime closedAt; // Momento em que o fechamento foi feito
+    @Column(name = "sale_count", nullable = false, updatable = false)
+    private long saleCount;
+    @Column(name = "item_count", nullable = false, updatable = false)
+    private long itemCount; // Soma das quantidades vendidas
+    @Column(name = "total_amount", nullable = false, updatable = false)
+    private double totalAmount;
+    @Column(name = "cash_amount", nullable = false, updatable = false)
+    private double cashAmount;
+    @Column(name = "pix_amount", nullable = false, updatable = false)
+    private double pixAmount;
+    @Column(name = "debit_amount", nullable = false, updatable = false)
+    private double debitAmount;
+    @Column(name = "credit_amount", nullable = false, updatable = false)
+    private double creditAmount;
+    @Column(name = "canceled_order_count", nullable = false, updatable = false)
+    private long canceledOrderCount; // Comandas canceladas no dia
+    @Column(name = "first_sale_at", updatable = false)
+    private LocalDateTime firstSaleAt;
+    @Column(name = "last_sale_at", updatable = false)
+    private LocalDateTime lastSaleAt;
+
+    // Construtor padrão
+    public DayClosing() {
+    }
+
+    // Construtor com todos os argumentos
+    public DayClosing(Long id, LocalDate businessDate, LocalDateTime closedAt, long saleCount, long itemCount, double totalAmount, double cashAmount, double pixAmount, double debitAmount, double creditAmount, long canceledOrderCount, LocalDateTime firstSaleAt, LocalDateTime lastSaleAt) {
+        this.id = id;
+        this.businessDate = businessDate;
+        this.closedAt = closedAt;
+        this.saleCount = saleCount;
+        this.itemCount = itemCount;
+        this.totalAmount = totalAmount;
+        this.cashAmount = cashAmount;
+        this.pixAmount = pixAmount;
+        this.debitAmount = debitAmount;
+        this.creditAmount = creditAmount;
+        this.canceledOrderCount = canceledOrderCount;
+        this.firstSaleAt = firstSaleAt;
+        this.lastSaleAt = lastSaleAt;
+    }
+
+    // Getters (sem setters: o fechamento não é alterado depois de gravado)
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public LocalDateTime getClosedAt() {
+        return closedAt;
+    }
+
+    public long getSaleCount() {
+        return saleCount;
+    }
+
+    public long getItemCount() {
+        return itemCount;
+    }
+
+    public double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public double getCashAmount() {
+        return cashAmount;
+    }
+
+    public double getPixAmount() {
+        return pixAmount;
+    }
+
+    public double getDebitAmount() {
+        return debitAmount;
+    }
+
+    public double getCreditAmount() {
+        return creditAmount;
+    }
+
+    public long getCanceledOrderCount() {
+        return canceledOrderCount;
+    }
+
+    public LocalDateTime getFirstSaleAt() {
+        return firstSaleAt;
+    }
+
+    public LocalDateTime getLastSaleAt() {
+        return lastSaleAt;
+    }
+}
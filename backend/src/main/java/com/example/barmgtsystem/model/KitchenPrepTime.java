@@ -0,0 +1,145 @@
+package com.example.barmgtsystem.model;
+
+import com.example.barmgtsystem.enums.KitchenStation;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Um ticket concluído na tela de preparo, gravado no bump. Base das estatísticas de tempo de preparo por produto.
+@Entity
+@Table(name = "kitchen_prep_times", indexes = @Index(name = "idx_kitchen_prep_times_bumped_at", columnList = "bumped_at"))
+public class KitchenPrepTime {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private KitchenStation station;
+    @Column(name = "order_id", nullable = false)
+    private String orderId;
+    @Column(name = "table_id")
+    private Long tableId;
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+    @Column(nullable = false)
+    private int quantity;
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    @Column(name = "acknowledged_at")
+    private LocalDateTime acknowledgedAt;
+    @Column(name = "bumped_at", nullable = false)
+    private LocalDateTime bumpedAt;
+    @Column(name = "prep_seconds", nullable = false)
+    private long prepSeconds;
+
+    // Construtor padrão
+    public KitchenPrepTime() {
+    }
+
+    // Construtor com todos os argumentos
+    public KitchenPrepTime(Long id, KitchenStation station, String orderId, Long tableId, String productId, String productName, int quantity, LocalDateTime createdAt, LocalDateTime acknowledgedAt, LocalDateTime bumpedAt, long prepSeconds) {
+        this.id = id;
+        this.station = station;
+        this.orderId = orderId;
+        this.tableId = tableId;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.createdAt = createdAt;
+        this.acknowledgedAt = acknowledgedAt;
+        this.bumpedAt = bumpedAt;
+        this.prepSeconds = prepSeconds;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public KitchenStation getStation() {
+        return station;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public Long getTableId() {
+        return tableId;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getAcknowledgedAt() {
+        return acknowledgedAt;
+    }
+
+    public LocalDateTime getBumpedAt() {
+        return bumpedAt;
+    }
+
+    public long getPrepSeconds() {
+        return prepSeconds;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setStation(KitchenStation station) {
+        this.station = station;
+    }
+
+    public void setOrderId(String orderId) {
+        this.orderId = orderId;
+    }
+
+    public void setTableId(Long tableId) {
+        this.tableId = tableId;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void setAcknowledgedAt(LocalDateTime acknowledgedAt) {
+        this.acknowledgedAt = acknowledgedAt;
+    }
+
+    public void setBumpedAt(LocalDateTime bumpedAt) {
+        this.bumpedAt = bumpedAt;
+    }
+
+    public void setPrepSeconds(long prepSeconds) {
+        this.prepSeconds = prepSeconds;
+    }
+}
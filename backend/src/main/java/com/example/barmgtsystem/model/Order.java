@@ -9,7 +9,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // Comandas abertas (findByStatus) e arquivamento das fechadas por end_time
+        @Index(name = "idx_orders_status", columnList = "status"),
+        @Index(name = "idx_orders_end_time", columnList = "end_time")
+})
 public class Order {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -33,13 +37,16 @@ public class Order {
     @Enumerated(EnumType.STRING)
     @Column(name = "payment_method")
     private PaymentMethod paymentMethod;
+    @Version // Controle otimista: toda alteração da comanda (itens, total, fechamento) incrementa a versão
+    @Column(nullable = false)
+    private long version;
 
     // Construtor padrão
     public Order() {
     }
 
     // Construtor com todos os argumentos
-    public Order(String id, Long tableId, List<OrderItem> items, double totalAmount, LocalDateTime startTime, LocalDateTime endTime, OrderStatus status, PaymentMethod paymentMethod) {
+    public Order(String id, Long tableId, List<OrderItem> items, double totalAmount, LocalDateTime startTime, LocalDateTime endTime, OrderStatus status, PaymentMethod paymentMethod, long version) {
         this.id = id;
         this.tableId = tableId;
         this.items = items;
@@ -48,6 +55,7 @@ public class Order {
         this.endTime = endTime;
         this.status = status;
         this.paymentMethod = paymentMethod;
+        this.version = version;
     }
 
     // Getters
@@ -83,6 +91,10 @@ public class Order {
         return paymentMethod;
     }
 
+    public long getVersion() {
+        return version;
+    }
+
     // Setters
     public void setId(String id) {
         this.id = id;
@@ -115,4 +127,8 @@ public class Order {
     public void setPaymentMethod(PaymentMethod paymentMethod) {
         this.paymentMethod = paymentMethod;
     }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
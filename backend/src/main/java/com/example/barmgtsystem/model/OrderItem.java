@@ -5,18 +5,22 @@ import com.fasterxml.jackson.annotation.JsonBackReference;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Importar JsonIgnoreProperties
 
 @Entity
-@Table(name = "order_items")
+@Table(name = "order_items", indexes = @Index(name = "idx_order_items_product_id", columnList = "product_id"))
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Faixas de 50 ids reservadas de uma vez na tabela id_generators (em vez de IDENTITY): o Hibernate conhece o id
+    // antes do INSERT e pode gravar os itens em lote
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "order_items_id")
+    @TableGenerator(name = "order_items_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "order_items", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY) // A comanda já está carregada quando os itens são lidos por ela
     @JoinColumn(name = "order_id", nullable = false)
     @JsonBackReference
     private Order order;
 
-    @ManyToOne(fetch = FetchType.EAGER) // Adicionar fetch = FetchType.EAGER ou JsonIgnoreProperties
+    @ManyToOne(fetch = FetchType.LAZY) // Carregado junto com os itens pelos entity graphs dos repositórios (evita uma consulta por item)
     @JoinColumn(name = "product_id", nullable = false)
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler", "category"}) // Adicionar esta anotação para evitar loop e problemas de serialização da categoria do produto
     private Product product;
@@ -7,7 +7,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        // Paginação por keyset da consulta de vendas: ordem (timestamp, id) e (total_amount, id)
+        @Index(name = "idx_sales_timestamp_id", columnList = "timestamp, id"),
+        @Index(name = "idx_sales_total_amount_id", columnList = "total_amount, id")
+})
 public class Sale {
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
@@ -18,7 +22,7 @@ public class Sale {
     private Long tableId;
 
     @OneToMany(cascade = CascadeType.ALL, orphanRemoval = true)
-    @JoinColumn(name = "sale_id")
+    @JoinColumn(name = "sale_id", nullable = false, updatable = false) // sale_id vai no próprio INSERT do item, sem UPDATE depois
     private List<SaleItem> items; // Importante: agora é List<SaleItem>
 
     @Column(name = "total_amount", nullable = false)
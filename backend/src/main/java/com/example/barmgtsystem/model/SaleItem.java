@@ -6,7 +6,11 @@ import jakarta.persistence.*;
 @Table(name = "sale_items")
 public class SaleItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Faixas de 50 ids reservadas de uma vez na tabela id_generators (em vez de IDENTITY): o Hibernate conhece o id
+    // antes do INSERT e pode gravar os itens em lote
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "sale_items_id")
+    @TableGenerator(name = "sale_items_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "sale_items", allocationSize = 50)
     private Long id;
 
     @Column(name = "product_id")
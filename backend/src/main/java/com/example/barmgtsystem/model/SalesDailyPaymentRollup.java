@@ -0,0 +1,80 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+import com.example.barmgtsystem.enums.PaymentMethod;
+
+import java.time.LocalDate;
+
+// Quantidade de vendas e faturamento por dia e método de pagamento.
+@Entity
+@Table(name = "sales_daily_payment_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollup_date_method", columnNames = {"sale_date", "payment_method"}))
+public class SalesDailyPaymentRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "sale_date", nullable = false)
+    private LocalDate saleDate;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "payment_method", nullable = false)
+    private PaymentMethod paymentMethod;
+    @Column(name = "sale_count", nullable = false)
+    private long saleCount;
+    @Column(nullable = false)
+    private double revenue;
+
+    // Construtor padrão
+    public SalesDailyPaymentRollup() {
+    }
+
+    // Construtor com todos os argumentos
+    public SalesDailyPaymentRollup(Long id, LocalDate saleDate, PaymentMethod paymentMethod, long saleCount, double revenue) {
+        this.id = id;
+        this.saleDate = saleDate;
+        this.paymentMethod = paymentMethod;
+        this.saleCount = saleCount;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDate getSaleDate() {
+        return saleDate;
+    }
+
+    public PaymentMethod getPaymentMethod() {
+        return paymentMethod;
+    }
+
+    public long getSaleCount() {
+        return saleCount;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setSaleDate(LocalDate saleDate) {
+        this.saleDate = saleDate;
+    }
+
+    public void setPaymentMethod(PaymentMethod paymentMethod) {
+        this.paymentMethod = paymentMethod;
+    }
+
+    public void setSaleCount(long saleCount) {
+        this.saleCount = saleCount;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+}
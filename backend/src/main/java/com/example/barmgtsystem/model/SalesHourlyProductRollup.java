@@ -0,0 +1,89 @@
+package com.example.barmgtsystem.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+// Total vendido por produto em cada hora. Mantido por OrderService.closeOrder e ReportService.cancelSale.
+@Entity
+@Table(name = "sales_hourly_product_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_hourly_rollup_bucket_product", columnNames = {"bucket_start", "product_id"}))
+public class SalesHourlyProductRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart; // Início da hora (minutos e segundos zerados)
+    @Column(name = "product_id", nullable = false)
+    private String productId;
+    @Column(name = "product_name", nullable = false)
+    private String productName;
+    @Column(nullable = false)
+    private long quantity;
+    @Column(nullable = false)
+    private double revenue;
+
+    // Construtor padrão
+    public SalesHourlyProductRollup() {
+    }
+
+    // Construtor com todos os argumentos
+    public SalesHourlyProductRollup(Long id, LocalDateTime bucketStart, String productId, String productName, long quantity, double revenue) {
+        this.id = id;
+        this.bucketStart = bucketStart;
+        this.productId = productId;
+        this.productName = productName;
+        this.quantity = quantity;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public LocalDateTime getBucketStart() {
+        return bucketStart;
+    }
+
+    public String getProductId() {
+        return productId;
+    }
+
+    public String getProductName() {
+        return productName;
+    }
+
+    public long getQuantity() {
+        return quantity;
+    }
+
+    public double getRevenue() {
+        return revenue;
+    }
+
+    // Setters
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public void setBucketStart(LocalDateTime bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public void setProductId(String productId) {
+        this.productId = productId;
+    }
+
+    public void setProductName(String productName) {
+        this.productName = productName;
+    }
+
+    public void setQuantity(long quantity) {
+        this.quantity = quantity;
+    }
+
+    public void setRevenue(double revenue) {
+        this.revenue = revenue;
+    }
+}
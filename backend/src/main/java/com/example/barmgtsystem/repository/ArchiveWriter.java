@@ -0,0 +1,63 @@
+package com.example.barmgtsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// Move lotes de linhas antigas das tabelas ativas para as tabelas de arquivo (INSERT ... SELECT e DELETE, sem
+// trazer as linhas para a aplicação). Participa da transação corrente: cada lote é movido por inteiro ou não é.
+@Repository
+public class ArchiveWriter {
+
+    private static final String ORDER_COLUMNS = "id, table_id, total_amount, start_time, end_time, status, payment_method, version";
+    private static final String ORDER_ITEM_COLUMNS = "id, order_id, product_id, quantity, price_at_order, send_to_kitchen";
+    private static final String SALE_COLUMNS = "id, order_id, table_id, total_amount, payment_method, timestamp";
+    private static final String SALE_ITEM_COLUMNS = "id, sale_id, product_id, product_name, price_at_sale, quantity, send_to_kitchen";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    // Comandas fechadas ou canceladas antes do corte, com os itens; retorna quantas comandas foram movidas
+    public int moveClosedOrders(LocalDateTime cutoff, int limit) {
+        List<String> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM orders WHERE status <> 'OPEN' AND end_time < ? ORDER BY end_time LIMIT ?",
+                String.class, Timestamp.valueOf(cutoff), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<String>> params = Map.of("ids", ids);
+        namedJdbcTemplate.update("INSERT INTO orders_archive (" + ORDER_COLUMNS + ") SELECT " + ORDER_COLUMNS
+                + " FROM orders WHERE id IN (:ids)", params);
+        namedJdbcTemplate.update("INSERT INTO order_items_archive (" + ORDER_ITEM_COLUMNS + ") SELECT " + ORDER_ITEM_COLUMNS
+                + " FROM order_items WHERE order_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM order_items WHERE order_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM orders WHERE id IN (:ids)", params);
+        return ids.size();
+    }
+
+    // Vendas anteriores ao corte, com os itens; retorna quantas vendas foram movidas
+    public int moveSales(LocalDateTime cutoff, int limit) {
+        List<String> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM sales WHERE timestamp < ? ORDER BY timestamp LIMIT ?",
+                String.class, Timestamp.valueOf(cutoff), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        Map<String, List<String>> params = Map.of("ids", ids);
+        namedJdbcTemplate.update("INSERT INTO sales_archive (" + SALE_COLUMNS + ") SELECT " + SALE_COLUMNS
+                + " FROM sales WHERE id IN (:ids)", params);
+        namedJdbcTemplate.update("INSERT INTO sale_items_archive (" + SALE_ITEM_COLUMNS + ") SELECT " + SALE_ITEM_COLUMNS
+                + " FROM sale_items WHERE sale_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM sale_items WHERE sale_id IN (:ids)", params);
+        namedJdbcTemplate.update("DELETE FROM sales WHERE id IN (:ids)", params);
+        return ids.size();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.model.ArchivedSale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+// Mesmas leituras do SaleRepository sobre as vendas arquivadas (linhas no mesmo formato)
+@Repository
+public interface ArchivedSaleRepository extends JpaRepository<ArchivedSale, String>, JpaSpecificationExecutor<ArchivedSale> {
+    @EntityGraph(attributePaths = "items")
+    List<ArchivedSale> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(attributePaths = "items")
+    List<ArchivedSale> findWithItemsByIdIn(Collection<String> ids);
+
+    // Venda mais recente do arquivo: até onde os relatórios precisam ler as duas tabelas
+    @Query("select max(s.timestamp) from ArchivedSale s")
+    LocalDateTime findLatestTimestamp();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s.id, s.timestamp, s.tableId, s.paymentMethod, s.totalAmount, i.productName, i.quantity, i.priceAtSale " +
+            "from ArchivedSale s left join s.items i " +
+            "where s.timestamp between :start and :end " +
+            "order by s.timestamp, s.id, i.id")
+    Stream<Object[]> streamExportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Mesma linha de SaleRepository.summarizePeriod, com as comandas canceladas do arquivo
+    @Query("select count(distinct s.id), coalesce(sum(i.quantity), 0), coalesce(sum(i.priceAtSale * i.quantity), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.CASH then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.PIX then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.DEBIT then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.CREDIT then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "min(s.timestamp), max(s.timestamp), " +
+            "(select count(o) from ArchivedOrder o where o.status = com.example.barmgtsystem.enums.OrderStatus.CANCELED " +
+            "and o.endTime between :start and :end) " +
+            "from ArchivedSale s left join s.items i where s.timestamp between :start and :end")
+    List<Object[]> summarizePeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("select extract(date from s.timestamp), extract(hour from s.timestamp), i.productId, max(i.productName), " +
+            "sum(i.quantity), sum(i.priceAtSale * i.quantity) " +
+            "from ArchivedSale s join s.items i " +
+            "group by extract(date from s.timestamp), extract(hour from s.timestamp), i.productId")
+    List<Object[]> aggregateByHourAndProduct();
+
+    @Query("select extract(date from s.timestamp), s.paymentMethod, count(s), sum(s.totalAmount) " +
+            "from ArchivedSale s group by extract(date from s.timestamp), s.paymentMethod")
+    List<Object[]> aggregateByDayAndPaymentMethod();
+}
@@ -0,0 +1,15 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.model.DayClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+@Repository
+public interface DayClosingRepository extends JpaRepository<DayClosing, Long> {
+    Optional<DayClosing> findByBusinessDate(LocalDate businessDate);
+
+    boolean existsByBusinessDate(LocalDate businessDate);
+}
@@ -0,0 +1,42 @@
+package com.example.barmgtsystem.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+// Geradores de id em tabela (id_generators) dos itens de comanda e de venda. Bancos criados quando os itens
+// usavam IDENTITY já têm ids gravados; antes do primeiro INSERT o gerador é avançado para depois do maior id
+// existente, senão as primeiras faixas reservadas colidiriam com eles.
+@Repository
+public class IdGeneratorAlignment {
+
+    // Mesmo allocationSize dos @TableGenerator de OrderItem e SaleItem
+    private static final int ALLOCATION_SIZE = 50;
+
+    // Cada gerador (pkColumnValue) tem o nome da tabela cujos ids ele entrega
+    private static final List<String> GENERATED_TABLES = List.of("order_items", "sale_items");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Idempotente: só avança geradores que estão atrás do maior id da tabela
+    public void alignWithExistingRows() {
+        for (String table : GENERATED_TABLES) {
+            Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            if (maxId == null || maxId == 0) {
+                continue;
+            }
+            // O gerador entrega a faixa (next_val - 49 .. next_val): a primeira começa logo após o maior id
+            long nextValue = maxId + ALLOCATION_SIZE;
+            int updated = jdbcTemplate.update("UPDATE id_generators SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                    nextValue, table, nextValue);
+            Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM id_generators WHERE sequence_name = ?",
+                    Integer.class, table);
+            if (updated == 0 && rows != null && rows == 0) {
+                jdbcTemplate.update("INSERT INTO id_generators (sequence_name, next_val) VALUES (?, ?)", table, nextValue);
+            }
+        }
+    }
+}
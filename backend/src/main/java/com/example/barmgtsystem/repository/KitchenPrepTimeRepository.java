@@ -0,0 +1,20 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.dto.ProductPrepTime;
+import com.example.barmgtsystem.model.KitchenPrepTime;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface KitchenPrepTimeRepository extends JpaRepository<KitchenPrepTime, Long> {
+
+    // Média e máximo do tempo de preparo por produto no período, agregados no banco
+    @Query("select new com.example.barmgtsystem.dto.ProductPrepTime(p.productId, p.productName, count(p), avg(p.prepSeconds), max(p.prepSeconds)) " +
+            "from KitchenPrepTime p where p.bumpedAt >= :start and p.bumpedAt < :end " +
+            "group by p.productId, p.productName order by avg(p.prepSeconds) desc")
+    List<ProductPrepTime> summarizeByProduct(LocalDateTime start, LocalDateTime end);
+}
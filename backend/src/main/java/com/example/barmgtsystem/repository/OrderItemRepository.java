@@ -2,6 +2,8 @@ package com.example.barmgtsystem.repository;
 
 import com.example.barmgtsystem.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List; // Importar List
@@ -10,4 +12,13 @@ import java.util.List; // Importar List
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
     // Adicionar este método para buscar OrderItems por Product ID
     List<OrderItem> findByProductId(String productId);
+
+    // Escritas diretas usadas pelo OpenOrderWorkingSet (sem recarregar a entidade antes)
+    @Modifying
+    @Query("update OrderItem i set i.quantity = :quantity where i.id = :id")
+    int updateQuantity(Long id, int quantity);
+
+    @Modifying
+    @Query("delete from OrderItem i where i.id = :id")
+    int deleteItemById(Long id);
 }
\ No newline at end of file
@@ -1,12 +1,46 @@
 package com.example.barmgtsystem.repository;
 
 import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.enums.OrderStatus;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, String> {
     Optional<Order> findById(String id); // JpaRepository já oferece findById, mas é bom ter aqui para clareza
+    List<Order> findByStatus(OrderStatus status);
+
+    // Carrega a comanda com itens e produtos em uma única consulta (usado pelo OpenOrderWorkingSet)
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
+    Optional<Order> findWithItemsByIdAndStatus(String id, OrderStatus status);
+
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
+    List<Order> findWithItemsByStatus(OrderStatus status);
+
+    // Comanda em qualquer status com itens e produtos (leitura de comandas já fechadas)
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
+    Optional<Order> findWithItemsById(String id);
+
+    // Grava o total de uma comanda aberta e incrementa a versão só se ela ainda for a versão lida.
+    // Retorna 0 se outra alteração chegou antes ou se a comanda não está mais aberta (controle otimista).
+    @Modifying
+    @Query("update Order o set o.version = o.version + 1, o.totalAmount = :totalAmount " +
+            "where o.id = :id and o.version = :version and o.status = com.example.barmgtsystem.enums.OrderStatus.OPEN")
+    int updateOpenOrder(String id, long version, double totalAmount);
+
+    // Fecha (PAID) ou cancela uma comanda aberta na versão lida em um único UPDATE; retorna 0 caso contrário
+    @Modifying
+    @Query("update Order o set o.version = o.version + 1, o.status = :status, o.endTime = :endTime, " +
+            "o.paymentMethod = :paymentMethod, o.totalAmount = :totalAmount " +
+            "where o.id = :id and o.version = :version and o.status = com.example.barmgtsystem.enums.OrderStatus.OPEN")
+    int finishOpenOrder(String id, long version, OrderStatus status, LocalDateTime endTime, PaymentMethod paymentMethod,
+                        double totalAmount);
 }
\ No newline at end of file
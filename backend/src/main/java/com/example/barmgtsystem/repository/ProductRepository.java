@@ -1,9 +1,16 @@
 package com.example.barmgtsystem.repository;
 
 import com.example.barmgtsystem.model.Product;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface ProductRepository extends JpaRepository<Product, String> {
+    // Produtos com a categoria na mesma consulta (usado para montar o snapshot do catálogo)
+    @Override
+    @EntityGraph(attributePaths = "category")
+    List<Product> findAll();
 }
\ No newline at end of file
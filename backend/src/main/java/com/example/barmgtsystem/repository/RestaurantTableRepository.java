@@ -2,11 +2,45 @@ package com.example.barmgtsystem.repository;
 
 import com.example.barmgtsystem.model.RestaurantTable; // Importar a classe renomeada
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface RestaurantTableRepository extends JpaRepository<RestaurantTable, Long> { // Usar RestaurantTable
     Optional<RestaurantTable> findById(Long id);
-}
\ No newline at end of file
+
+    // Ocupa a mesa em um único UPDATE condicional (compare-and-set): só afeta a linha se ela ainda estiver FREE.
+    // Retorna 0 se outra comanda ocupou a mesa primeiro. Participa da transação de quem chama, se houver.
+    @Transactional
+    @Modifying
+    @Query("update RestaurantTable t set t.status = com.example.barmgtsystem.enums.TableStatus.OCCUPIED, " +
+            "t.orderId = :orderId, t.startTime = :startTime " +
+            "where t.id = :id and t.status = com.example.barmgtsystem.enums.TableStatus.FREE")
+    int claimTable(Long id, String orderId, LocalDateTime startTime);
+
+    // Libera a mesa somente se ela ainda pertence à comanda informada; retorna 0 caso contrário
+    @Transactional
+    @Modifying
+    @Query("update RestaurantTable t set t.status = com.example.barmgtsystem.enums.TableStatus.FREE, " +
+            "t.orderId = null, t.startTime = null " +
+            "where t.id = :id and t.orderId = :orderId")
+    int releaseTable(Long id, String orderId);
+
+    // Insere uma mesa livre com o id informado. Sem @Transactional: só roda na transação de quem chama (a mesa de
+    // aquecimento, que some no rollback)
+    @Modifying
+    @Query(value = "insert into tables (id, status) values (:id, 'FREE')", nativeQuery = true)
+    int insertFreeTable(Long id);
+
+    // Marca o alerta de ocupação somente se a mesa ainda estiver ocupada pela mesma comanda
+    @Transactional
+    @Modifying
+    @Query("update RestaurantTable t set t.status = com.example.barmgtsystem.enums.TableStatus.ALERT " +
+            "where t.id = :id and t.orderId = :orderId and t.status = com.example.barmgtsystem.enums.TableStatus.OCCUPIED")
+    int markAlert(Long id, String orderId);
+}
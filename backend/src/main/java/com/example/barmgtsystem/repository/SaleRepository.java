@@ -1,13 +1,74 @@
 package com.example.barmgtsystem.repository;
 
 import com.example.barmgtsystem.model.Sale;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, String> {
+public interface SaleRepository extends JpaRepository<Sale, String>, JpaSpecificationExecutor<Sale> {
+    // Vendas com os itens na mesma consulta (sem uma consulta extra por venda na serialização)
+    @EntityGraph(attributePaths = "items")
     List<Sale> findByTimestampBetween(LocalDateTime startOfDay, LocalDateTime endOfDay);
+
+    @Override
+    @EntityGraph(attributePaths = "items")
+    List<Sale> findAll();
+
+    // Há vendas a arquivar? (ArchiveService)
+    boolean existsByTimestampBefore(LocalDateTime cutoff);
+
+    // Itens de várias vendas de uma vez (uma consulta por página em vez de uma por venda)
+    @EntityGraph(attributePaths = "items")
+    List<Sale> findWithItemsByIdIn(Collection<String> ids);
+
+    // Linhas planas venda x item para a exportação, lidas do banco aos poucos por cursor (sem criar entidades).
+    // Linhas: [id, timestamp, mesa, método de pagamento, total, produto, quantidade, preço]. Exige transação aberta.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select s.id, s.timestamp, s.tableId, s.paymentMethod, s.totalAmount, i.productName, i.quantity, i.priceAtSale " +
+            "from Sale s left join s.items i " +
+            "where s.timestamp between :start and :end " +
+            "order by s.timestamp, s.id, i.id")
+    Stream<Object[]> streamExportRows(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Fechamento do dia em uma única consulta: vendas, itens, totais por método de pagamento, primeira/última venda
+    // e comandas canceladas no período. Os totais vêm das linhas de item (a junção repetiria o total de cada venda).
+    // Linha: [vendas, itens, total, dinheiro, pix, débito, crédito, primeira venda, última venda, comandas canceladas]
+    @Query("select count(distinct s.id), coalesce(sum(i.quantity), 0), coalesce(sum(i.priceAtSale * i.quantity), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.CASH then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.PIX then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.DEBIT then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "coalesce(sum(case when s.paymentMethod = com.example.barmgtsystem.enums.PaymentMethod.CREDIT then i.priceAtSale * i.quantity else 0 end), 0), " +
+            "min(s.timestamp), max(s.timestamp), " +
+            "(select count(o) from Order o where o.status = com.example.barmgtsystem.enums.OrderStatus.CANCELED " +
+            "and o.endTime between :start and :end) " +
+            "from Sale s left join s.items i where s.timestamp between :start and :end")
+    List<Object[]> summarizePeriod(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    // Agregações usadas apenas para reconstruir os rollups a partir do histórico de vendas.
+    // Linhas: [data, hora, productId, productName, quantidade, faturamento]
+    @Query("select extract(date from s.timestamp), extract(hour from s.timestamp), i.productId, max(i.productName), " +
+            "sum(i.quantity), sum(i.priceAtSale * i.quantity) " +
+            "from Sale s join s.items i " +
+            "group by extract(date from s.timestamp), extract(hour from s.timestamp), i.productId")
+    List<Object[]> aggregateByHourAndProduct();
+
+    // Linhas: [data, método de pagamento, quantidade de vendas, faturamento]
+    @Query("select extract(date from s.timestamp), s.paymentMethod, count(s), sum(s.totalAmount) " +
+            "from Sale s group by extract(date from s.timestamp), s.paymentMethod")
+    List<Object[]> aggregateByDayAndPaymentMethod();
 }
\ No newline at end of file
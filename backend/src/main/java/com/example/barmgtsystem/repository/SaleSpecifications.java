@@ -0,0 +1,68 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.dto.SaleSearchCriteria;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Filtros da consulta de vendas montados como Specification, para que tudo vire WHERE no banco.
+// Genéricos porque valem tanto para Sale quanto para ArchivedSale (mesmos atributos).
+public final class SaleSpecifications {
+
+    private SaleSpecifications() {
+    }
+
+    public static <T> Specification<T> matching(SaleSearchCriteria criteria) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            if (criteria.getFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("timestamp"), criteria.getFrom().atStartOfDay()));
+            }
+            if (criteria.getTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.<LocalDateTime>get("timestamp"), criteria.getTo().atTime(LocalTime.MAX)));
+            }
+            if (criteria.getPaymentMethod() != null) {
+                predicates.add(cb.equal(root.get("paymentMethod"), criteria.getPaymentMethod()));
+            }
+            if (criteria.getMinAmount() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("totalAmount"), criteria.getMinAmount()));
+            }
+            if (criteria.getMaxAmount() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("totalAmount"), criteria.getMaxAmount()));
+            }
+            if (criteria.getProduct() != null && !criteria.getProduct().isBlank()) {
+                // EXISTS em vez de JOIN, para não repetir a venda uma vez por item
+                Subquery<Long> withProduct = query.subquery(Long.class);
+                Root<T> sale = withProduct.correlate(root);
+                Join<T, ?> item = sale.join("items");
+                withProduct.select(cb.literal(1L)).where(
+                        cb.like(cb.lower(item.get("productName")), "%" + escapeLike(criteria.getProduct().trim().toLowerCase()) + "%", '\\'));
+                predicates.add(cb.exists(withProduct));
+            }
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    // Keyset: vendas depois da última linha da página anterior na ordem (campo, id)
+    public static <S, T extends Comparable<? super T>> Specification<S> after(String field, T lastValue, String lastId, boolean ascending) {
+        return (root, query, cb) -> {
+            if (ascending) {
+                return cb.or(cb.greaterThan(root.get(field), lastValue),
+                        cb.and(cb.equal(root.get(field), lastValue), cb.greaterThan(root.get("id"), lastId)));
+            }
+            return cb.or(cb.lessThan(root.get(field), lastValue),
+                    cb.and(cb.equal(root.get(field), lastValue), cb.lessThan(root.get("id"), lastId)));
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
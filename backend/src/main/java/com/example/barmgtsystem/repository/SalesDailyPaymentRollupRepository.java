@@ -0,0 +1,13 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.model.SalesDailyPaymentRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SalesDailyPaymentRollupRepository extends JpaRepository<SalesDailyPaymentRollup, Long> {
+    List<SalesDailyPaymentRollup> findBySaleDateBetweenOrderBySaleDateAscPaymentMethodAsc(LocalDate start, LocalDate end);
+}
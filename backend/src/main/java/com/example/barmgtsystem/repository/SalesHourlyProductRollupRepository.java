@@ -0,0 +1,13 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.model.SalesHourlyProductRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SalesHourlyProductRollupRepository extends JpaRepository<SalesHourlyProductRollup, Long> {
+    List<SalesHourlyProductRollup> findByBucketStartBetweenOrderByBucketStartAscProductNameAsc(LocalDateTime start, LocalDateTime end);
+}
@@ -0,0 +1,70 @@
+package com.example.barmgtsystem.repository;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Incrementos atômicos nas tabelas de rollup (upsert em lote, uma ida ao banco por tabela).
+// Participa da transação JPA corrente, então o rollup é gravado junto com a venda.
+@Repository
+public class SalesRollupWriter {
+
+    private static final String UPSERT_HOURLY_PRODUCT =
+            "INSERT INTO sales_hourly_product_rollups (bucket_start, product_id, product_name, quantity, revenue) " +
+            "VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE quantity = quantity + VALUES(quantity), revenue = revenue + VALUES(revenue), " +
+            "product_name = VALUES(product_name)";
+
+    private static final String UPSERT_DAILY_PAYMENT =
+            "INSERT INTO sales_daily_payment_rollups (sale_date, payment_method, sale_count, revenue) " +
+            "VALUES (?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE sale_count = sale_count + VALUES(sale_count), revenue = revenue + VALUES(revenue)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Variação de um produto em uma hora (valores negativos para estornos)
+    public record HourlyProductDelta(LocalDateTime bucketStart, String productId, String productName, long quantity, double revenue) {
+    }
+
+    // Variação de um método de pagamento em um dia (valores negativos para estornos)
+    public record DailyPaymentDelta(LocalDate saleDate, PaymentMethod paymentMethod, long saleCount, double revenue) {
+    }
+
+    public void applyHourlyProductDeltas(List<HourlyProductDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (HourlyProductDelta delta : deltas) {
+            rows.add(new Object[]{Timestamp.valueOf(delta.bucketStart()), delta.productId(), delta.productName(),
+                    delta.quantity(), delta.revenue()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_HOURLY_PRODUCT, rows);
+    }
+
+    public void applyDailyPaymentDeltas(List<DailyPaymentDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(deltas.size());
+        for (DailyPaymentDelta delta : deltas) {
+            rows.add(new Object[]{java.sql.Date.valueOf(delta.saleDate()), delta.paymentMethod().name(),
+                    delta.saleCount(), delta.revenue()});
+        }
+        jdbcTemplate.batchUpdate(UPSERT_DAILY_PAYMENT, rows);
+    }
+
+    // Apaga todos os rollups (usado antes de reconstruí-los a partir das vendas)
+    public void deleteAll() {
+        jdbcTemplate.update("DELETE FROM sales_hourly_product_rollups");
+        jdbcTemplate.update("DELETE FROM sales_daily_payment_rollups");
+    }
+}
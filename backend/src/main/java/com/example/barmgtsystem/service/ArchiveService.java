@@ -0,0 +1,138 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.config.BackgroundThreads;
+import com.example.barmgtsystem.repository.ArchiveWriter;
+import com.example.barmgtsystem.repository.ArchivedSaleRepository;
+import com.example.barmgtsystem.repository.SaleRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+// Arquivamento: comandas fechadas/canceladas e vendas mais antigas que a janela de retenção saem das tabelas
+// ativas (orders, order_items, sales, sale_items) para as tabelas *_archive. As tabelas ativas ficam com o
+// movimento recente, que é o que o caixa usa; os relatórios leem as duas (ver ReportService).
+// Fora do caminho da subida (@Lazy): criado quando a aplicação fica pronta ou na primeira consulta de relatório.
+@Service
+@Lazy
+public class ArchiveService {
+
+    @Autowired
+    private ArchiveWriter archiveWriter;
+    @Autowired
+    private SaleRepository saleRepository;
+    @Autowired
+    private ArchivedSaleRepository archivedSaleRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private BackgroundThreads backgroundThreads;
+    @Autowired
+    private MeterRegistry meterRegistry; // Linhas arquivadas, expostas em /actuator/prometheus
+
+    @Value("${bar.archive.enabled:true}")
+    private boolean enabled;
+
+    // Dias completos mantidos nas tabelas ativas
+    @Value("${bar.archive.retention-days:90}")
+    private int retentionDays;
+
+    // Comandas (ou vendas) movidas por transação: lotes pequenos seguram os locks por pouco tempo
+    @Value("${bar.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${bar.archive.interval-minutes:360}")
+    private long intervalMinutes;
+
+    private ScheduledExecutorService scheduler;
+    // Vendas anteriores a este instante podem estar no arquivo; null enquanto nada foi arquivado
+    private volatile LocalDateTime salesArchivedBefore;
+    private volatile boolean watermarkLoaded = false;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        getSalesArchivedBefore(); // Marca d'água antes da primeira rodada
+        if (!enabled) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(backgroundThreads.newThreadFactory("archiver"));
+        // Primeira rodada alguns minutos depois da subida, longe da carga do registro e das comandas abertas
+        scheduler.scheduleWithFixedDelay(this::archiveExpired, 5, intervalMinutes, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Limite até onde os relatórios precisam consultar também as vendas arquivadas
+    public LocalDateTime getSalesArchivedBefore() {
+        if (!watermarkLoaded) {
+            loadWatermark();
+        }
+        return salesArchivedBefore;
+    }
+
+    // Lido quando a aplicação fica pronta ou, antes disso, na primeira consulta de relatório
+    public void loadWatermark() {
+        LocalDateTime latest = archivedSaleRepository.findLatestTimestamp();
+        if (latest != null && (salesArchivedBefore == null || latest.isAfter(salesArchivedBefore))) {
+            salesArchivedBefore = latest.plusNanos(1);
+        }
+        watermarkLoaded = true;
+    }
+
+    private void archiveExpired() {
+        try {
+            archiveBefore(LocalDate.now().minusDays(retentionDays).atStartOfDay());
+        } catch (RuntimeException e) {
+            System.out.println("Error archiving closed orders and sales: " + e.getMessage());
+        }
+    }
+
+    // Move tudo o que é anterior ao corte, em lotes de batchSize por transação
+    public void archiveBefore(LocalDateTime cutoff) {
+        int orders = moveInBatches(cutoff, archiveWriter::moveClosedOrders);
+
+        int sales = 0;
+        if (saleRepository.existsByTimestampBefore(cutoff)) {
+            // Avança o limite antes de mover: um relatório no meio do arquivamento já consulta o arquivo
+            // e não perde as vendas que acabaram de sair da tabela ativa
+            LocalDateTime current = getSalesArchivedBefore();
+            if (current == null || cutoff.isAfter(current)) {
+                salesArchivedBefore = cutoff;
+            }
+            sales = moveInBatches(cutoff, archiveWriter::moveSales);
+        }
+
+        meterRegistry.counter("bar.archive.rows", "table", "orders").increment(orders);
+        meterRegistry.counter("bar.archive.rows", "table", "sales").increment(sales);
+        if (orders > 0 || sales > 0) {
+            System.out.println("Archived " + orders + " orders and " + sales + " sales before " + cutoff);
+        }
+    }
+
+    private int moveInBatches(LocalDateTime cutoff, BiFunction<LocalDateTime, Integer, Integer> move) {
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> move.apply(cutoff, batchSize));
+            total += moved;
+        } while (moved == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.repository.ProductCategoryRepository;
+import com.example.barmgtsystem.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Snapshot do catálogo (produtos e categorias) já serializado em JSON.
+// O catálogo muda raramente, então as leituras servem os bytes prontos e a versão vira o ETag.
+@Service
+public class CatalogService {
+
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductCategoryRepository categoryRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Começa no relógio atual para que um ETag de antes de um restart nunca coincida com um novo
+    private final AtomicLong versionSequence = new AtomicLong(System.currentTimeMillis());
+    private volatile CatalogSnapshot snapshot;
+    // Serializa as reconstruções (leem o banco); lock explícito para não prender virtual threads como synchronized
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public static final class CatalogSnapshot {
+        private final long version;
+        private final byte[] productsJson;
+        private final byte[] categoriesJson;
+        private final Map<String, Product> productsById;
+
+        private CatalogSnapshot(long version, byte[] productsJson, byte[] categoriesJson, Map<String, Product> productsById) {
+            this.version = version;
+            this.productsJson = productsJson;
+            this.categoriesJson = categoriesJson;
+            this.productsById = productsById;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getETag() {
+            return "\"catalog-" + version + "\"";
+        }
+
+        public byte[] getProductsJson() {
+            return productsJson;
+        }
+
+        public byte[] getCategoriesJson() {
+            return categoriesJson;
+        }
+
+        public Optional<Product> findProduct(String productId) {
+            return Optional.ofNullable(productsById.get(productId));
+        }
+
+        public Collection<Product> getProducts() {
+            return productsById.values();
+        }
+    }
+
+    public CatalogSnapshot getSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null) {
+            rebuildLock.lock();
+            try {
+                current = snapshot;
+                if (current == null) {
+                    current = rebuild();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return current;
+    }
+
+    // Monta o snapshot completo e só então o publica, então leitores nunca veem um catálogo pela metade
+    public CatalogSnapshot rebuild() {
+        rebuildLock.lock();
+        try {
+            List<Product> products = productRepository.findAll();
+            List<ProductCategory> categories = categoryRepository.findAll();
+            Map<String, Product> productsById = new HashMap<>();
+            for (Product product : products) {
+                productsById.put(product.getId(), product);
+            }
+            CatalogSnapshot rebuilt = new CatalogSnapshot(versionSequence.incrementAndGet(),
+                    objectMapper.writeValueAsBytes(products),
+                    objectMapper.writeValueAsBytes(categories),
+                    Collections.unmodifiableMap(productsById));
+            snapshot = rebuilt;
+            return rebuilt;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize product catalog", e);
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    // Busca de produto sem ir ao banco (os objetos do snapshot são somente leitura)
+    public Optional<Product> findProduct(String productId) {
+        return getSnapshot().findProduct(productId);
+    }
+
+    // Chamado pelas escritas de produtos/categorias: reconstrói depois do commit da alteração
+    public void rebuildAfterCommit() {
+        TransactionCallbacks.afterCommit(this::rebuild);
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.model.SaleItem;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Locale;
+
+// Monta os tickets como comandos ESC/POS. Cada impressora tem o seu renderer e o seu buffer, usados por uma
+// única thread: o buffer é limpo (reset) e reaproveitado a cada ticket, sem alocar um array novo por impressão.
+class EscPosRenderer {
+
+    static final int COLUMNS = 42; // Fonte A em bobina de 80 mm
+
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    // Página de código PC850 (ESC t 2) cobre os acentos do português; sem ela, cai para ASCII
+    private static final Charset CHARSET = Charset.isSupported("IBM850") ? Charset.forName("IBM850") : StandardCharsets.US_ASCII;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final Locale PT_BR = Locale.forLanguageTag("pt-BR");
+
+    private final String receiptHeader; // Nome do bar no topo do cupom (bar.printing.receipt.header)
+
+    EscPosRenderer(String receiptHeader) {
+        this.receiptHeader = receiptHeader;
+    }
+
+    void renderKitchenTicket(KitchenTicket ticket, ByteArrayOutputStream out) {
+        begin(out);
+        align(out, 1);
+        doubleSize(out, true);
+        text(out, "COZINHA - MESA " + ticket.getTableId());
+        doubleSize(out, false);
+        text(out, ticket.getCreatedAt().format(DATE_TIME));
+        align(out, 0);
+        separator(out);
+
+        doubleSize(out, true);
+        for (KitchenTicket.Line line : ticket.getLines()) {
+            // Retiradas saem destacadas para a cozinha não preparar o que foi desfeito
+            text(out, line.getQuantity() > 0
+                    ? line.getQuantity() + "x " + line.getProductName()
+                    : "CANCELAR " + (-line.getQuantity()) + "x " + line.getProductName());
+        }
+        doubleSize(out, false);
+        separator(out);
+        text(out, "Comanda " + shortId(ticket.getOrderId()));
+        feedAndCut(out);
+    }
+
+    // Aviso para a cozinha parar o preparo: a comanda foi cancelada depois de algum ticket dela sair
+    void renderKitchenCancellation(String orderId, Long tableId, ByteArrayOutputStream out) {
+        begin(out);
+        align(out, 1);
+        doubleSize(out, true);
+        text(out, "COZINHA - MESA " + tableId);
+        doubleSize(out, false);
+        text(out, LocalDateTime.now().format(DATE_TIME));
+        separator(out);
+        doubleSize(out, true);
+        text(out, "COMANDA CANCELADA");
+        doubleSize(out, false);
+        text(out, "Não preparar os itens pendentes");
+        align(out, 0);
+        separator(out);
+        text(out, "Comanda " + shortId(orderId));
+        feedAndCut(out);
+    }
+
+    void renderReceipt(Sale sale, ByteArrayOutputStream out) {
+        begin(out);
+        align(out, 1);
+        doubleSize(out, true);
+        text(out, receiptHeader);
+        doubleSize(out, false);
+        text(out, "Mesa " + sale.getTableId() + " - " + sale.getTimestamp().format(DATE_TIME));
+        align(out, 0);
+        separator(out);
+
+        List<SaleItem> items = sale.getItems();
+        for (SaleItem item : items) {
+            columns(out, item.getQuantity() + "x " + item.getProductName(), money(item.getPriceAtSale() * item.getQuantity()));
+        }
+        separator(out);
+        bold(out, true);
+        columns(out, "TOTAL", "R$ " + money(sale.getTotalAmount()));
+        bold(out, false);
+        columns(out, "Pagamento", sale.getPaymentMethod() == null ? "" : sale.getPaymentMethod().getDisplayName());
+        feedAndCut(out);
+    }
+
+    // ESC @ reinicia a impressora; ESC t 2 seleciona a página de código PC850
+    private void begin(ByteArrayOutputStream out) {
+        out.write(ESC);
+        out.write('@');
+        out.write(ESC);
+        out.write('t');
+        out.write(2);
+    }
+
+    // 0 = esquerda, 1 = centro
+    private void align(ByteArrayOutputStream out, int alignment) {
+        out.write(ESC);
+        out.write('a');
+        out.write(alignment);
+    }
+
+    private void bold(ByteArrayOutputStream out, boolean on) {
+        out.write(ESC);
+        out.write('E');
+        out.write(on ? 1 : 0);
+    }
+
+    // Largura e altura dobradas (GS ! 0x11)
+    private void doubleSize(ByteArrayOutputStream out, boolean on) {
+        out.write(GS);
+        out.write('!');
+        out.write(on ? 0x11 : 0x00);
+    }
+
+    private void text(ByteArrayOutputStream out, String line) {
+        out.writeBytes(line.getBytes(CHARSET));
+        out.write('\n');
+    }
+
+    private void separator(ByteArrayOutputStream out) {
+        text(out, "-".repeat(COLUMNS));
+    }
+
+    // Texto à esquerda e valor alinhado à direita na mesma linha; o texto é cortado se não couber
+    private void columns(ByteArrayOutputStream out, String left, String right) {
+        int room = COLUMNS - right.length() - 1;
+        String trimmed = left.length() > room ? left.substring(0, Math.max(0, room)) : left;
+        text(out, trimmed + " ".repeat(COLUMNS - trimmed.length() - right.length()) + right);
+    }
+
+    // Avança o papel e faz o corte parcial (ESC d 4, GS V 1)
+    private void feedAndCut(ByteArrayOutputStream out) {
+        out.write(ESC);
+        out.write('d');
+        out.write(4);
+        out.write(GS);
+        out.write('V');
+        out.write(1);
+    }
+
+    private String money(double value) {
+        return String.format(PT_BR, "%.2f", value);
+    }
+
+    private String shortId(String orderId) {
+        return orderId == null || orderId.length() <= 8 ? String.valueOf(orderId) : orderId.substring(0, 8);
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.config.BackgroundThreads;
+import com.example.barmgtsystem.dto.KitchenDisplayTicket;
+import com.example.barmgtsystem.dto.ProductPrepTime;
+import com.example.barmgtsystem.enums.KitchenStation;
+import com.example.barmgtsystem.enums.KitchenTicketStatus;
+import com.example.barmgtsystem.model.KitchenPrepTime;
+import com.example.barmgtsystem.repository.KitchenPrepTimeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Telas de preparo (cozinha e bar). Cada estação tem a sua fila de tickets em memória, em ordem de chegada,
+// alimentada pelas alterações de comanda depois do commit. As telas assinam por SSE: recebem a fila inteira
+// uma vez e depois apenas os tickets alterados ou removidos, sem consultar order_items a cada atualização.
+@Service
+public class KitchenDisplayService {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    @Autowired
+    private KitchenPrepTimeRepository prepTimeRepository; // Tempo de preparo de cada ticket concluído
+
+    @Autowired
+    private BackgroundThreads backgroundThreads; // Threads de plataforma ou virtuais, conforme o modo
+
+    private final AtomicLong ticketSequence = new AtomicLong();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    // Fila de cada estação por id do ticket (crescente = ordem de chegada). Os tickets publicados não são
+    // alterados: cada mudança troca a entrada, com o monitor da fila, então leituras nunca veem um ticket pela metade.
+    private final Map<KitchenStation, NavigableMap<Long, KitchenDisplayTicket>> boards = new EnumMap<>(KitchenStation.class);
+    private final Map<Long, KitchenStation> stationByTicket = new ConcurrentHashMap<>();
+    private final Map<KitchenStation, List<SseEmitter>> emitters = new EnumMap<>(KitchenStation.class);
+
+    // Envio em thread própria para não segurar a requisição que alterou a comanda
+    private ExecutorService dispatcher;
+    // Comentários periódicos mantêm a conexão aberta através de proxies
+    private ScheduledExecutorService heartbeat;
+
+    public KitchenDisplayService() {
+        for (KitchenStation station : KitchenStation.values()) {
+            boards.put(station, new ConcurrentSkipListMap<>());
+            emitters.put(station, new CopyOnWriteArrayList<>());
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(backgroundThreads.newThreadFactory("kitchen-display"));
+        heartbeat = Executors.newSingleThreadScheduledExecutor(backgroundThreads.newThreadFactory("kitchen-display-heartbeat"));
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Registra a variação de quantidade de um item da comanda na estação dele, depois do commit.
+    // Aumentos viram um ticket novo; reduções descontam dos tickets ainda na tela, do mais recente para o mais antigo.
+    public void recordItemChange(String orderId, Long tableId, String productId, String productName,
+                                 boolean sendToKitchen, int quantityDelta) {
+        if (quantityDelta == 0) {
+            return;
+        }
+        KitchenStation station = sendToKitchen ? KitchenStation.KITCHEN : KitchenStation.BAR;
+        TransactionCallbacks.afterCommit(() -> {
+            if (quantityDelta > 0) {
+                addTicket(station, orderId, tableId, productId, productName, quantityDelta);
+            } else {
+                reduceTickets(station, orderId, productId, -quantityDelta);
+            }
+        });
+    }
+
+    // Comanda cancelada: os tickets dela saem das telas depois do commit
+    public void clearOrder(String orderId) {
+        TransactionCallbacks.afterCommit(() -> {
+            for (KitchenStation station : KitchenStation.values()) {
+                NavigableMap<Long, KitchenDisplayTicket> board = boards.get(station);
+                synchronized (board) {
+                    for (KitchenDisplayTicket ticket : new ArrayList<>(board.values())) {
+                        if (ticket.getOrderId().equals(orderId)) {
+                            removeTicket(board, ticket);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    public List<KitchenDisplayTicket> getBoard(KitchenStation station) {
+        return new ArrayList<>(boards.get(station).values());
+    }
+
+    // Preparo iniciado: o ticket continua na tela, marcado para as outras telas da estação
+    public KitchenDisplayTicket acknowledge(Long ticketId) {
+        NavigableMap<Long, KitchenDisplayTicket> board = requireBoard(ticketId);
+        synchronized (board) {
+            KitchenDisplayTicket ticket = requireTicket(board, ticketId);
+            if (ticket.getStatus() == KitchenTicketStatus.ACKNOWLEDGED) {
+                return ticket;
+            }
+            KitchenDisplayTicket acknowledged = copyOf(ticket);
+            acknowledged.setStatus(KitchenTicketStatus.ACKNOWLEDGED);
+            acknowledged.setAcknowledgedAt(LocalDateTime.now());
+            board.put(ticketId, acknowledged);
+            publish(acknowledged.getStation(), "ticket", acknowledged);
+            return acknowledged;
+        }
+    }
+
+    // Pronto: o ticket sai da tela e o tempo de preparo (do pedido até aqui) é gravado
+    public KitchenDisplayTicket bump(Long ticketId) {
+        NavigableMap<Long, KitchenDisplayTicket> board = requireBoard(ticketId);
+        KitchenDisplayTicket ticket;
+        synchronized (board) {
+            ticket = requireTicket(board, ticketId);
+            removeTicket(board, ticket);
+        }
+
+        LocalDateTime bumpedAt = LocalDateTime.now();
+        prepTimeRepository.save(new KitchenPrepTime(null, ticket.getStation(), ticket.getOrderId(), ticket.getTableId(),
+                ticket.getProductId(), ticket.getProductName(), ticket.getQuantity(), ticket.getCreatedAt(),
+                ticket.getAcknowledgedAt(), bumpedAt, Duration.between(ticket.getCreatedAt(), bumpedAt).getSeconds()));
+        return ticket;
+    }
+
+    // Tempo médio e máximo de preparo por produto, dos tickets concluídos entre as datas (inclusive)
+    public List<ProductPrepTime> getPrepTimes(LocalDate from, LocalDate to) {
+        return prepTimeRepository.summarizeByProduct(from.atStartOfDay(), to.plusDays(1).atStartOfDay());
+    }
+
+    // Registra uma tela da estação e envia a fila atual (também usado em reconexões)
+    public SseEmitter subscribe(KitchenStation station) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        List<SseEmitter> stationEmitters = emitters.get(station);
+        emitter.onCompletion(() -> stationEmitters.remove(emitter));
+        emitter.onTimeout(() -> stationEmitters.remove(emitter));
+        emitter.onError(e -> stationEmitters.remove(emitter));
+
+        // Snapshot e eventos passam pelo mesmo dispatcher, então nenhuma alteração se perde entre os dois
+        dispatcher.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(eventSequence.get()))
+                        .name("snapshot")
+                        .data(getBoard(station)));
+                stationEmitters.add(emitter);
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    private void addTicket(KitchenStation station, String orderId, Long tableId, String productId, String productName, int quantity) {
+        NavigableMap<Long, KitchenDisplayTicket> board = boards.get(station);
+        KitchenDisplayTicket ticket = new KitchenDisplayTicket(ticketSequence.incrementAndGet(), station, orderId, tableId,
+                productId, productName, quantity, KitchenTicketStatus.NEW, LocalDateTime.now(), null);
+        synchronized (board) {
+            board.put(ticket.getId(), ticket);
+            stationByTicket.put(ticket.getId(), station);
+            publish(station, "ticket", ticket);
+        }
+    }
+
+    private void reduceTickets(KitchenStation station, String orderId, String productId, int quantity) {
+        NavigableMap<Long, KitchenDisplayTicket> board = boards.get(station);
+        synchronized (board) {
+            int remaining = quantity;
+            for (KitchenDisplayTicket ticket : new ArrayList<>(board.descendingMap().values())) {
+                if (remaining == 0) {
+                    break;
+                }
+                if (!ticket.getOrderId().equals(orderId) || !ticket.getProductId().equals(productId)) {
+                    continue;
+                }
+                if (ticket.getQuantity() <= remaining) {
+                    remaining -= ticket.getQuantity();
+                    removeTicket(board, ticket);
+                } else {
+                    KitchenDisplayTicket reduced = copyOf(ticket);
+                    reduced.setQuantity(ticket.getQuantity() - remaining);
+                    remaining = 0;
+                    board.put(reduced.getId(), reduced);
+                    publish(station, "ticket", reduced);
+                }
+            }
+        }
+    }
+
+    // Deve ser chamado com o monitor da fila
+    private void removeTicket(NavigableMap<Long, KitchenDisplayTicket> board, KitchenDisplayTicket ticket) {
+        board.remove(ticket.getId());
+        stationByTicket.remove(ticket.getId());
+        publish(ticket.getStation(), "removed", ticket.getId());
+    }
+
+    private NavigableMap<Long, KitchenDisplayTicket> requireBoard(Long ticketId) {
+        KitchenStation station = stationByTicket.get(ticketId);
+        if (station == null) {
+            throw new RuntimeException("Kitchen ticket not found with id " + ticketId);
+        }
+        return boards.get(station);
+    }
+
+    private KitchenDisplayTicket requireTicket(NavigableMap<Long, KitchenDisplayTicket> board, Long ticketId) {
+        KitchenDisplayTicket ticket = board.get(ticketId);
+        if (ticket == null) {
+            throw new RuntimeException("Kitchen ticket not found with id " + ticketId); // Concluído por outra tela
+        }
+        return ticket;
+    }
+
+    // Chamado com o monitor da fila: os eventos entram no dispatcher na mesma ordem das alterações
+    private void publish(KitchenStation station, String eventName, Object data) {
+        dispatcher.execute(() -> {
+            String eventId = String.valueOf(eventSequence.incrementAndGet());
+            List<SseEmitter> stationEmitters = emitters.get(station);
+            for (SseEmitter emitter : stationEmitters) {
+                try {
+                    // O builder não pode ser reaproveitado entre emitters
+                    emitter.send(SseEmitter.event().id(eventId).name(eventName).data(data));
+                } catch (IOException | IllegalStateException e) {
+                    // Tela desconectada: remove e deixa o navegador reconectar (recebendo nova fila)
+                    stationEmitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    private void sendHeartbeat() {
+        dispatcher.execute(() -> {
+            for (List<SseEmitter> stationEmitters : emitters.values()) {
+                for (SseEmitter emitter : stationEmitters) {
+                    try {
+                        emitter.send(SseEmitter.event().comment("ping"));
+                    } catch (IOException | IllegalStateException e) {
+                        stationEmitters.remove(emitter);
+                    }
+                }
+            }
+        });
+    }
+
+    private KitchenDisplayTicket copyOf(KitchenDisplayTicket ticket) {
+        return new KitchenDisplayTicket(ticket.getId(), ticket.getStation(), ticket.getOrderId(), ticket.getTableId(),
+                ticket.getProductId(), ticket.getProductName(), ticket.getQuantity(), ticket.getStatus(),
+                ticket.getCreatedAt(), ticket.getAcknowledgedAt());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        emitters.values().forEach(stationEmitters -> {
+            stationEmitters.forEach(SseEmitter::complete);
+            stationEmitters.clear();
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.barmgtsystem.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Ticket de cozinha de uma comanda. Acumula, por produto, as variações de quantidade feitas durante a janela
+// de agrupamento, então várias adições seguidas saem em um único ticket (e uma adição desfeita não sai).
+class KitchenTicket {
+
+    // Linha do ticket: quantidade líquida do produto (negativa quando itens foram retirados)
+    static final class Line {
+        private final String productName;
+        private int quantity;
+
+        private Line(String productName) {
+            this.productName = productName;
+        }
+
+        String getProductName() {
+            return productName;
+        }
+
+        int getQuantity() {
+            return quantity;
+        }
+    }
+
+    private final String orderId;
+    private final Long tableId;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+    private final Map<String, Line> linesByProduct = new LinkedHashMap<>();
+
+    KitchenTicket(String orderId, Long tableId) {
+        this.orderId = orderId;
+        this.tableId = tableId;
+    }
+
+    void add(String productId, String productName, int quantityDelta) {
+        linesByProduct.computeIfAbsent(productId, id -> new Line(productName)).quantity += quantityDelta;
+    }
+
+    // Linhas com quantidade diferente de zero, na ordem em que os produtos foram pedidos
+    List<Line> getLines() {
+        List<Line> lines = new ArrayList<>(linesByProduct.size());
+        for (Line line : linesByProduct.values()) {
+            if (line.quantity != 0) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    String getOrderId() {
+        return orderId;
+    }
+
+    Long getTableId() {
+        return tableId;
+    }
+
+    LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
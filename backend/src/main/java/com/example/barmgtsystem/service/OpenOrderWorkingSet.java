@@ -0,0 +1,293 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.enums.OrderStatus;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.OrderItem;
+import com.example.barmgtsystem.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Conjunto em memória das comandas OPEN, com os itens indexados por produto e por id e o total
+// mantido de forma incremental. O conjunto guarda apenas estados já confirmados no banco, que nunca
+// são alterados: cada alteração trabalha em uma cópia privada (checkout) e a cópia só substitui o
+// estado publicado depois do commit. Conflitos entre alterações são resolvidos pela versão da comanda,
+// conferida e incrementada no mesmo UPDATE que grava o total (save/finish), depois das escritas dos itens.
+@Service
+public class OpenOrderWorkingSet {
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    private final Map<String, OpenOrder> openOrders = new ConcurrentHashMap<>();
+
+    // Protege a troca entre "carregar do banco" e "publicar/retirar do conjunto": uma carga que começou
+    // antes de uma publicação nunca recoloca no conjunto um estado mais antigo
+    private final Object membershipLock = new Object();
+    private long membershipGeneration = 0;
+
+    // Estado de uma comanda aberta. As instâncias publicadas no conjunto são somente leitura;
+    // as cópias de checkout pertencem a uma única transação.
+    public static final class OpenOrder {
+        private final Order order;
+        // Versão da comanda no banco; na cópia de trabalho avança a cada save da transação
+        private long version;
+        // Estado publicado de onde a cópia de trabalho saiu (null nas instâncias publicadas)
+        private final OpenOrder base;
+        private final Map<Long, OrderItem> itemsById = new LinkedHashMap<>();
+        private final Map<String, OrderItem> itemsByProduct = new HashMap<>();
+        private long totalCents;
+        private boolean retired = false;
+
+        private OpenOrder(Order source) {
+            this.order = new Order(source.getId(), source.getTableId(), new ArrayList<>(), 0.0,
+                    source.getStartTime(), null, OrderStatus.OPEN, null, source.getVersion());
+            this.version = source.getVersion();
+            this.base = null;
+            if (source.getItems() != null) {
+                for (OrderItem item : source.getItems()) {
+                    addItem(item);
+                }
+            }
+        }
+
+        // Cópia de trabalho, ainda na versão lida
+        private OpenOrder(OpenOrder base) {
+            this.order = base.order;
+            this.version = base.version;
+            this.base = base;
+            for (OrderItem item : base.itemsById.values()) {
+                addItem(item);
+            }
+        }
+
+        public String getOrderId() {
+            return order.getId();
+        }
+
+        public Long getTableId() {
+            return order.getTableId();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public OrderItem findItemByProduct(String productId) {
+            return itemsByProduct.get(productId);
+        }
+
+        public OrderItem findItem(Long orderItemId) {
+            return itemsById.get(orderItemId);
+        }
+
+        public Collection<OrderItem> getItems() {
+            return Collections.unmodifiableCollection(itemsById.values());
+        }
+
+        public boolean isEmpty() {
+            return itemsById.isEmpty();
+        }
+
+        public double getTotalAmount() {
+            return totalCents / 100.0;
+        }
+
+        // O item precisa já ter id (gravado no banco)
+        public void addItem(OrderItem source) {
+            OrderItem item = new OrderItem(source.getId(), order, source.getProduct(), source.getQuantity(),
+                    source.getPriceAtOrder(), source.isSendToKitchen());
+            itemsById.put(item.getId(), item);
+            itemsByProduct.put(item.getProduct().getId(), item);
+            totalCents += lineCents(item.getPriceAtOrder(), item.getQuantity());
+        }
+
+        public void setQuantity(OrderItem item, int newQuantity) {
+            totalCents += lineCents(item.getPriceAtOrder(), newQuantity - item.getQuantity());
+            item.setQuantity(newQuantity);
+        }
+
+        public void removeItem(OrderItem item) {
+            itemsById.remove(item.getId());
+            itemsByProduct.remove(item.getProduct().getId());
+            totalCents -= lineCents(item.getPriceAtOrder(), item.getQuantity());
+        }
+
+        // Cópia independente para devolver ao controller
+        public Order toOrder() {
+            List<OrderItem> items = new ArrayList<>(itemsById.size());
+            Order copy = new Order(order.getId(), order.getTableId(), items, getTotalAmount(),
+                    order.getStartTime(), null, OrderStatus.OPEN, null, version);
+            for (OrderItem item : itemsById.values()) {
+                items.add(new OrderItem(item.getId(), copy, item.getProduct(), item.getQuantity(),
+                        item.getPriceAtOrder(), item.isSendToKitchen()));
+            }
+            return copy;
+        }
+
+        // Total em centavos para que somas e subtrações sucessivas não acumulem erro de ponto flutuante
+        private static long lineCents(double price, int quantity) {
+            return Math.round(price * 100) * quantity;
+        }
+    }
+
+    // Recarrega todas as comandas OPEN do banco (usado na inicialização)
+    public void rebuild() {
+        long generation = currentGeneration();
+        List<Order> orders = orderRepository.findWithItemsByStatus(OrderStatus.OPEN);
+        synchronized (membershipLock) {
+            if (generation != membershipGeneration) {
+                return; // Houve publicações durante a carga; as comandas serão carregadas sob demanda
+            }
+            for (Order order : orders) {
+                openOrders.putIfAbsent(order.getId(), new OpenOrder(order));
+            }
+        }
+    }
+
+    // Publica uma comanda recém-aberta quando a transação que a criou fizer commit
+    public void register(Order order) {
+        OpenOrder open = new OpenOrder(order);
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (membershipLock) {
+                openOrders.putIfAbsent(open.getOrderId(), open);
+                membershipGeneration++;
+            }
+        });
+    }
+
+    // Devolve uma cópia de trabalho da comanda para alteração na transação corrente, sem escrever no banco:
+    // a versão lida é conferida no save/finish. Vazio se a comanda não existe ou não está mais aberta.
+    public Optional<OpenOrder> checkout(String orderId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Open orders can only be changed inside a transaction");
+        }
+        Map<String, OpenOrder> checkedOut = checkedOutInTransaction();
+        OpenOrder alreadyCheckedOut = checkedOut.get(orderId);
+        if (alreadyCheckedOut != null) {
+            // Segunda alteração da mesma comanda na mesma transação: continua na mesma cópia
+            return alreadyCheckedOut.retired ? Optional.empty() : Optional.of(alreadyCheckedOut);
+        }
+        Optional<OpenOrder> candidate = lookup(orderId);
+        if (candidate.isEmpty()) {
+            return Optional.empty();
+        }
+        OpenOrder base = candidate.get();
+        OpenOrder working = new OpenOrder(base);
+        checkedOut.put(orderId, working);
+        // Só depois do commit a cópia passa a ser o estado publicado; num rollback ela é simplesmente descartada
+        TransactionCallbacks.afterCommit(() -> publish(base, working));
+        return Optional.of(working);
+    }
+
+    // Grava a alteração da cópia de trabalho depois das escritas dos itens: versão e total num único UPDATE,
+    // condicional à versão lida e à comanda ainda aberta. Se outra alteração gravou antes (ou fechou a comanda),
+    // lança ObjectOptimisticLockingFailureException e o chamador repete a transação inteira sobre o estado novo.
+    public void save(OpenOrder working) {
+        if (orderRepository.updateOpenOrder(working.getOrderId(), working.version, working.getTotalAmount()) == 0) {
+            throw conflict(working);
+        }
+        working.version++;
+    }
+
+    // Fecha (PAID) ou cancela a comanda no mesmo UPDATE condicional à versão; no commit ela sai do conjunto
+    public void finish(OpenOrder working, OrderStatus status, LocalDateTime endTime, PaymentMethod paymentMethod) {
+        if (orderRepository.finishOpenOrder(working.getOrderId(), working.version, status, endTime, paymentMethod,
+                working.getTotalAmount()) == 0) {
+            throw conflict(working);
+        }
+        working.version++;
+        working.retired = true;
+    }
+
+    // Estado publicado da comanda aberta (somente leitura)
+    public Optional<Order> snapshot(String orderId) {
+        return lookup(orderId).map(OpenOrder::toOrder);
+    }
+
+    // Cópias de trabalho da transação corrente, por id da comanda
+    @SuppressWarnings("unchecked")
+    private Map<String, OpenOrder> checkedOutInTransaction() {
+        Map<String, OpenOrder> checkedOut = (Map<String, OpenOrder>) TransactionSynchronizationManager.getResource(this);
+        if (checkedOut == null) {
+            checkedOut = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(this, checkedOut);
+            TransactionCallbacks.afterCompletion(() -> TransactionSynchronizationManager.unbindResourceIfPossible(this));
+        }
+        return checkedOut;
+    }
+
+    private void publish(OpenOrder base, OpenOrder working) {
+        synchronized (membershipLock) {
+            if (working.retired) {
+                openOrders.remove(base.getOrderId(), base);
+            } else {
+                // Se a entrada mudou nesse meio tempo (descartada ou recarregada), mantém a que está lá:
+                // ela veio do banco depois do nosso commit ou de uma alteração mais nova
+                openOrders.replace(base.getOrderId(), base, working);
+            }
+            membershipGeneration++;
+        }
+    }
+
+    // Estado em memória desatualizado (ou comanda já fechada): a próxima tentativa relê do banco
+    private ObjectOptimisticLockingFailureException conflict(OpenOrder working) {
+        evict(working.base);
+        return new ObjectOptimisticLockingFailureException(Order.class, working.getOrderId());
+    }
+
+    private void evict(OpenOrder stale) {
+        synchronized (membershipLock) {
+            openOrders.remove(stale.getOrderId(), stale);
+            membershipGeneration++;
+        }
+    }
+
+    private Optional<OpenOrder> lookup(String orderId) {
+        while (true) {
+            OpenOrder open = openOrders.get(orderId);
+            if (open != null) {
+                return Optional.of(open);
+            }
+            // Falta no conjunto (após um conflito, por exemplo): carrega do banco se ainda estiver aberta
+            long generation = currentGeneration();
+            Optional<Order> loaded = orderRepository.findWithItemsByIdAndStatus(orderId, OrderStatus.OPEN);
+            if (loaded.isEmpty()) {
+                return Optional.empty();
+            }
+            synchronized (membershipLock) {
+                if (generation == membershipGeneration) {
+                    OpenOrder cached = openOrders.computeIfAbsent(orderId, id -> new OpenOrder(loaded.get()));
+                    // Lida dentro da transação corrente, que pode ter criado a própria comanda: num rollback a
+                    // entrada sai do conjunto e a próxima consulta relê do banco
+                    TransactionCallbacks.afterRollback(() -> {
+                        synchronized (membershipLock) {
+                            openOrders.remove(orderId, cached);
+                        }
+                    });
+                    return Optional.of(cached);
+                }
+            }
+            // O conjunto mudou durante a carga; a leitura pode estar velha, então carrega de novo
+        }
+    }
+
+    private long currentGeneration() {
+        synchronized (membershipLock) {
+            return membershipGeneration;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.barmgtsystem.service;
+
+// Operação de comanda recusada por uma regra do bar. O motivo vai para a métrica bar.orders.errors
+// (tag cause); a mensagem continua sendo a devolvida ao terminal.
+public class OrderRejectedException extends RuntimeException {
+
+    public static final String NOT_FOUND = "not_found";
+    public static final String TABLE_TAKEN = "table_taken";
+    public static final String NOT_OPEN = "not_open";
+    public static final String EMPTY_ORDER = "empty_order";
+    public static final String INVALID_REQUEST = "invalid_request";
+
+    private final String reason;
+
+    public OrderRejectedException(String reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -1,24 +1,35 @@
 package com.example.barmgtsystem.service;
 
 import com.example.barmgtsystem.model.*; // Importa todas as classes de modelo
+import com.example.barmgtsystem.dto.OrderItemOperation;
+import com.example.barmgtsystem.enums.OrderItemOperationType;
 import com.example.barmgtsystem.enums.OrderStatus; // Importa o enum OrderStatus do seu pacote 'enums'
 import com.example.barmgtsystem.enums.PaymentMethod; // Importa o enum PaymentMethod do seu pacote 'enums'
-import com.example.barmgtsystem.enums.TableStatus; // Importa o enum TableStatus do seu pacote 'enums'
 import com.example.barmgtsystem.repository.OrderItemRepository;
 import com.example.barmgtsystem.repository.OrderRepository;
-import com.example.barmgtsystem.repository.ProductRepository;
 import com.example.barmgtsystem.repository.SaleRepository;
-import com.example.barmgtsystem.repository.SaleItemRepository;
-import com.example.barmgtsystem.repository.RestaurantTableRepository; // Importa o repositório correto para a mesa
+import com.example.barmgtsystem.service.OpenOrderWorkingSet.OpenOrder;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class OrderService {
@@ -28,23 +39,50 @@ public class OrderService {
     @Autowired
     private OrderItemRepository orderItemRepository;
     @Autowired
-    private RestaurantTableRepository tableRepository; // Injeção do repositório de RestaurantTable
+    private TableService tableService; // Registro em memória das mesas (fonte autoritativa do status)
     @Autowired
-    private ProductRepository productRepository;
+    private CatalogService catalogService; // Produtos vêm do snapshot do catálogo, sem consulta ao banco
     @Autowired
     private SaleRepository saleRepository;
     @Autowired
-    private SaleItemRepository saleItemRepository;
+    private ReportService reportService; // Rollups de vendas atualizados na mesma transação da venda
+    @Autowired
+    private OpenOrderWorkingSet openOrders; // Comandas abertas em memória (itens indexados e total incremental)
+    @Autowired
+    private PrintSpoolerService printSpooler; // Tickets da cozinha e cupom do caixa, enviados após o commit
+    @Autowired
+    private KitchenDisplayService kitchenDisplay; // Telas de preparo da cozinha e do bar
+    @Autowired
+    private TransactionTemplate transactionTemplate; // Cada tentativa de alteração roda em uma transação própria
+    @Autowired
+    private MeterRegistry meterRegistry; // Latência e erros de cada operação, expostos em /actuator/prometheus
+
+    // Tentativas de uma alteração de comanda quando outra alteração da mesma comanda grava antes
+    @Value("${bar.orders.max-attempts:3}")
+    private int maxAttempts;
+
+    private static final List<String> OPERATIONS = List.of("start", "add_item", "update_quantity", "remove_item",
+            "apply_batch", "close", "cancel");
+
+    // Histograma de latência por operação (transação e novas tentativas incluídas)
+    private final Map<String, Timer> operationTimers = new HashMap<>();
+
+    @PostConstruct
+    public void registerMetrics() {
+        for (String operation : OPERATIONS) {
+            operationTimers.put(operation, Timer.builder("bar.orders.operation")
+                    .description("Duração das operações de comanda")
+                    .tag("operation", operation)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
 
-    @Transactional
     public Order startOrder(Long tableId) {
-        RestaurantTable table = tableRepository.findById(tableId)
-                .orElseThrow(() -> new RuntimeException("Table not found with id " + tableId));
-
-        if (table.getStatus() != TableStatus.FREE) {
-            throw new RuntimeException("Table " + tableId + " is not free to start a new order.");
-        }
+        return measure("start", () -> transactionTemplate.execute(status -> doStartOrder(tableId)));
+    }
 
+    private Order doStartOrder(Long tableId) {
         Order newOrder = new Order();
         newOrder.setTableId(tableId);
         newOrder.setItems(new ArrayList<>());
@@ -54,127 +92,248 @@ public class OrderService {
 
         Order savedOrder = orderRepository.save(newOrder);
 
-        table.setOrderId(savedOrder.getId());
-        table.setStartTime(savedOrder.getStartTime());
-        table.setStatus(TableStatus.OCCUPIED);
-        tableRepository.save(table);
+        // Ocupação atômica (UPDATE condicional na mesa); se outra comanda ocupou a mesa primeiro, a transação é desfeita
+        tableService.occupyTable(tableId, savedOrder.getId(), savedOrder.getStartTime());
+        openOrders.register(savedOrder);
 
         return savedOrder;
     }
 
-    @Transactional
     public Order addItemToOrder(String orderId, String productId, int quantity) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id " + orderId));
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new RuntimeException("Product not found with id " + productId));
-
-        Optional<OrderItem> existingOrderItem = order.getItems().stream()
-                .filter(item -> item.getProduct().getId().equals(productId))
-                .findFirst();
-
-        if (existingOrderItem.isPresent()) {
-            OrderItem item = existingOrderItem.get();
-            item.setQuantity(item.getQuantity() + quantity);
-            orderItemRepository.save(item);
+        return measure("add_item", () -> {
+            Product product = catalogService.findProduct(productId)
+                    .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Product not found with id " + productId));
+
+            return withOptimisticRetry(() -> {
+                OpenOrder order = checkoutOpenOrder(orderId);
+                addItem(order, product, quantity);
+                openOrders.save(order); // Versão e total num único UPDATE, depois dos itens
+                return order.toOrder();
+            });
+        });
+    }
+
+    public Order removeItemFromOrder(String orderId, Long orderItemId) {
+        return measure("remove_item", () -> doRemoveItem(orderId, orderItemId));
+    }
+
+    private Order doRemoveItem(String orderId, Long orderItemId) {
+        return withOptimisticRetry(() -> {
+            OpenOrder order = checkoutOpenOrder(orderId);
+            removeItem(order, requireItem(order, orderItemId));
+            openOrders.save(order); // Versão e total num único UPDATE, depois dos itens
+            return order.toOrder();
+        });
+    }
+
+    public Order updateOrderItemQuantity(String orderId, Long orderItemId, int newQuantity) {
+        return measure("update_quantity", () -> {
+            if (newQuantity < 1) {
+                return doRemoveItem(orderId, orderItemId);
+            }
+
+            return withOptimisticRetry(() -> {
+                OpenOrder order = checkoutOpenOrder(orderId);
+                changeQuantity(order, requireItem(order, orderItemId), newQuantity);
+                openOrders.save(order); // Versão e total num único UPDATE, depois dos itens
+                return order.toOrder();
+            });
+        });
+    }
+
+    // Aplica um lote de operações (adicionar, alterar quantidade, remover) em uma única transação:
+    // cada produto é resolvido uma vez e o total da comanda é gravado uma vez no final.
+    public Order applyItemOperations(String orderId, List<OrderItemOperation> operations) {
+        return measure("apply_batch", () -> doApplyItemOperations(orderId, operations));
+    }
+
+    private Order doApplyItemOperations(String orderId, List<OrderItemOperation> operations) {
+        // Valida o lote inteiro antes de abrir a transação
+        Map<String, Product> products = new HashMap<>();
+        for (OrderItemOperation operation : operations) {
+            if (operation.getType() == null) {
+                throw new OrderRejectedException(OrderRejectedException.INVALID_REQUEST, "Operation type is required.");
+            }
+            if (operation.getType() == OrderItemOperationType.ADD) {
+                if (operation.getQuantity() == null || operation.getQuantity() < 1) {
+                    throw new OrderRejectedException(OrderRejectedException.INVALID_REQUEST, "Quantity must be at least 1 for product " + operation.getProductId());
+                }
+                products.computeIfAbsent(operation.getProductId(), id -> catalogService.findProduct(id)
+                        .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Product not found with id " + id)));
+            }
+        }
+
+        return withOptimisticRetry(() -> {
+            OpenOrder order = checkoutOpenOrder(orderId);
+            applyOperations(order, operations, products);
+            openOrders.save(order); // Versão e total num único UPDATE, depois dos itens
+            return order.toOrder();
+        });
+    }
+
+    private void applyOperations(OpenOrder order, List<OrderItemOperation> operations, Map<String, Product> products) {
+        for (OrderItemOperation operation : operations) {
+            switch (operation.getType()) {
+                case ADD -> addItem(order, products.get(operation.getProductId()), operation.getQuantity());
+                case SET_QUANTITY -> {
+                    OrderItem item = requireItem(order, operation.getOrderItemId());
+                    if (operation.getQuantity() == null || operation.getQuantity() < 1) {
+                        removeItem(order, item);
+                    } else {
+                        changeQuantity(order, item, operation.getQuantity());
+                    }
+                }
+                case REMOVE -> removeItem(order, requireItem(order, operation.getOrderItemId()));
+            }
+        }
+    }
+
+    // Soma na linha existente do produto (índice por productId) ou insere uma nova linha
+    private void addItem(OpenOrder order, Product product, int quantity) {
+        OrderItem existingOrderItem = order.findItemByProduct(product.getId());
+        if (existingOrderItem != null) {
+            changeQuantity(order, existingOrderItem, existingOrderItem.getQuantity() + quantity);
         } else {
             OrderItem newOrderItem = new OrderItem();
-            newOrderItem.setOrder(order);
+            newOrderItem.setOrder(orderRepository.getReferenceById(order.getOrderId())); // Referência, sem SELECT
             newOrderItem.setProduct(product);
             newOrderItem.setQuantity(quantity);
             newOrderItem.setPriceAtOrder(product.getPrice());
             newOrderItem.setSendToKitchen(product.isSendToKitchen());
-            order.getItems().add(newOrderItem);
-            orderItemRepository.save(newOrderItem);
+            order.addItem(orderItemRepository.save(newOrderItem));
+            notifyStations(order, newOrderItem, quantity);
         }
+    }
 
-        updateOrderTotal(order);
-        return orderRepository.save(order);
+    private void changeQuantity(OpenOrder order, OrderItem item, int newQuantity) {
+        int delta = newQuantity - item.getQuantity();
+        orderItemRepository.updateQuantity(item.getId(), newQuantity);
+        order.setQuantity(item, newQuantity);
+        notifyStations(order, item, delta);
     }
 
-    @Transactional
-    public Order removeItemFromOrder(String orderId, Long orderItemId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id " + orderId));
-        OrderItem itemToRemove = orderItemRepository.findById(orderItemId)
-                .orElseThrow(() -> new RuntimeException("OrderItem not found with id " + orderItemId));
+    private void removeItem(OpenOrder order, OrderItem item) {
+        orderItemRepository.deleteItemById(item.getId());
+        order.removeItem(item);
+        notifyStations(order, item, -item.getQuantity());
+    }
 
-        if (!itemToRemove.getOrder().getId().equals(orderId)) {
-            throw new RuntimeException("OrderItem does not belong to this order.");
+    // Variação de quantidade para a tela de preparo da estação e, se for de cozinha, para a impressora.
+    // Nada sai se a transação não fizer commit.
+    private void notifyStations(OpenOrder order, OrderItem item, int quantityDelta) {
+        kitchenDisplay.recordItemChange(order.getOrderId(), order.getTableId(), item.getProduct().getId(),
+                item.getProduct().getName(), item.isSendToKitchen(), quantityDelta);
+        if (item.isSendToKitchen()) {
+            printSpooler.printKitchenItem(order.getOrderId(), order.getTableId(), item.getProduct().getId(),
+                    item.getProduct().getName(), quantityDelta);
         }
-
-        order.getItems().remove(itemToRemove);
-        orderItemRepository.delete(itemToRemove);
-
-        updateOrderTotal(order);
-        return orderRepository.save(order);
     }
 
-    @Transactional
-    public Order updateOrderItemQuantity(String orderId, Long orderItemId, int newQuantity) {
-        if (newQuantity < 1) {
-            return removeItemFromOrder(orderId, orderItemId);
+    private OrderItem requireItem(OpenOrder order, Long orderItemId) {
+        OrderItem item = order.findItem(orderItemId);
+        if (item == null) {
+            throw new OrderRejectedException(OrderRejectedException.NOT_FOUND, "OrderItem " + orderItemId + " does not belong to this order.");
         }
+        return item;
+    }
 
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id " + orderId));
-        OrderItem orderItem = orderItemRepository.findById(orderItemId)
-                .orElseThrow(() -> new RuntimeException("OrderItem not found with id " + orderItemId));
+    // Devolve a cópia de trabalho da comanda aberta; se não estiver aberta, explica o motivo
+    private OpenOrder checkoutOpenOrder(String orderId) {
+        return openOrders.checkout(orderId).orElseThrow(() -> {
+            Order order = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Order not found with id " + orderId));
+            return new OrderRejectedException(OrderRejectedException.NOT_OPEN, "Order " + orderId + " is not open. Current status: " + order.getStatus());
+        });
+    }
 
-        if (!orderItem.getOrder().getId().equals(orderId)) {
-            throw new RuntimeException("OrderItem does not belong to this order.");
+    // Executa a alteração em uma transação própria. Se outra alteração da mesma comanda gravou antes
+    // (a versão mudou) ou o banco desfez a transação por deadlock ou espera de lock, a tentativa é desfeita
+    // e repetida sobre o estado confirmado, até maxAttempts vezes.
+    // Nenhum lock é mantido entre tentativas; o conflito custa apenas refazer a alteração.
+    private <T> T withOptimisticRetry(Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return mutation.get(); // Já dentro da transação de quem chamou: o conflito é tratado por ela
         }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> mutation.get());
+            } catch (ConcurrencyFailureException e) {
+                if (attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        orderItem.setQuantity(newQuantity);
-        orderItemRepository.save(orderItem);
-
-        updateOrderTotal(order);
-        return orderRepository.save(order);
+    // Mede a operação inteira e conta as falhas pela causa
+    private <T> T measure(String operation, Supplier<T> action) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            meterRegistry.counter("bar.orders.errors", "operation", operation, "cause", errorCause(e)).increment();
+            throw e;
+        } finally {
+            sample.stop(operationTimers.get(operation));
+        }
     }
 
-    private void updateOrderTotal(Order order) {
-        double newTotal = order.getItems().stream()
-                .mapToDouble(item -> item.getPriceAtOrder() * item.getQuantity())
-                .sum();
-        order.setTotalAmount(newTotal);
+    // Causa de uma falha: conflito de versão (tentativas esgotadas), lock ou outra falha do banco,
+    // ou a regra da comanda que recusou a operação (informada por quem lançou a exceção)
+    private String errorCause(RuntimeException e) {
+        if (e instanceof OptimisticLockingFailureException) {
+            return "conflict";
+        }
+        if (e instanceof PessimisticLockingFailureException) {
+            return "lock";
+        }
+        if (e instanceof DataAccessException) {
+            return "database";
+        }
+        if (e instanceof OrderRejectedException rejected) {
+            return rejected.getReason();
+        }
+        return "unexpected";
     }
 
     public Optional<Order> getOrderById(String id) {
-        return orderRepository.findById(id);
+        Optional<Order> openOrder = openOrders.snapshot(id);
+        return openOrder.isPresent() ? openOrder : orderRepository.findWithItemsById(id);
     }
 
     public Optional<Order> getOrderByTableId(Long tableId) {
-        RestaurantTable table = tableRepository.findById(tableId)
-                .orElseThrow(() -> new RuntimeException("Table not found with id " + tableId));
+        RestaurantTable table = tableService.getTableById(tableId)
+                .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Table not found with id " + tableId));
         if (table.getOrderId() != null) {
-            return orderRepository.findById(table.getOrderId());
+            return getOrderById(table.getOrderId());
         }
         return Optional.empty();
     }
 
-    @Transactional
     public Sale closeOrder(String orderId, PaymentMethod paymentMethod) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id " + orderId));
+        return measure("close", () -> withOptimisticRetry(() -> doCloseOrder(orderId, paymentMethod)));
+    }
 
-        if (order.getStatus() != OrderStatus.OPEN) {
-            throw new RuntimeException("Order " + orderId + " cannot be closed. Current status: " + order.getStatus());
-        }
-        if (order.getItems().isEmpty()) {
-            throw new RuntimeException("Order " + orderId + " has no items. Cannot close empty order.");
+    private Sale doCloseOrder(String orderId, PaymentMethod paymentMethod) {
+        OpenOrder order = openOrders.checkout(orderId).orElseThrow(() -> {
+            Order stored = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Order not found with id " + orderId));
+            return new OrderRejectedException(OrderRejectedException.NOT_OPEN, "Order " + orderId + " cannot be closed. Current status: " + stored.getStatus());
+        });
+
+        if (order.isEmpty()) {
+            throw new OrderRejectedException(OrderRejectedException.EMPTY_ORDER, "Order " + orderId + " has no items. Cannot close empty order.");
         }
 
-        order.setEndTime(LocalDateTime.now());
-        order.setStatus(OrderStatus.PAID);
-        order.setPaymentMethod(paymentMethod);
-        orderRepository.save(order);
+        LocalDateTime now = LocalDateTime.now();
+        openOrders.finish(order, OrderStatus.PAID, now, paymentMethod);
 
         Sale newSale = new Sale();
-        newSale.setOrderId(order.getId());
+        newSale.setOrderId(order.getOrderId());
         newSale.setTableId(order.getTableId());
         newSale.setTotalAmount(order.getTotalAmount());
         newSale.setPaymentMethod(paymentMethod);
-        newSale.setTimestamp(LocalDateTime.now());
+        newSale.setTimestamp(now);
 
         List<SaleItem> saleItems = new ArrayList<>();
         for (OrderItem orderItem : order.getItems()) {
@@ -189,37 +348,41 @@ public class OrderService {
         newSale.setItems(saleItems);
 
         Sale savedSale = saleRepository.save(newSale);
+        reportService.recordSale(savedSale);
+        printSpooler.printReceipt(savedSale);
+        printSpooler.closeKitchenOrder(order.getOrderId(), order.getTableId());
 
-        RestaurantTable table = tableRepository.findById(order.getTableId())
-                .orElseThrow(() -> new RuntimeException("Table not found for order " + orderId));
-        table.setOrderId(null);
-        table.setStartTime(null);
-        table.setStatus(TableStatus.FREE);
-        tableRepository.save(table);
+        tableService.releaseTable(order.getTableId(), order.getOrderId());
 
         return savedSale;
     }
 
-    @Transactional
     public Order cancelOrder(String orderId) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id " + orderId));
+        return measure("cancel", () -> withOptimisticRetry(() -> doCancelOrder(orderId)));
+    }
 
-        if (order.getStatus() != OrderStatus.OPEN) {
-            throw new RuntimeException("Order " + orderId + " cannot be canceled. Current status: " + order.getStatus());
-        }
+    private Order doCancelOrder(String orderId) {
+        OpenOrder order = openOrders.checkout(orderId).orElseThrow(() -> {
+            Order stored = orderRepository.findById(orderId)
+                    .orElseThrow(() -> new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Order not found with id " + orderId));
+            return new OrderRejectedException(OrderRejectedException.NOT_OPEN, "Order " + orderId + " cannot be canceled. Current status: " + stored.getStatus());
+        });
+
+        LocalDateTime now = LocalDateTime.now();
+        openOrders.finish(order, OrderStatus.CANCELED, now, null);
 
-        order.setEndTime(LocalDateTime.now());
-        order.setStatus(OrderStatus.CANCELED);
-        orderRepository.save(order);
+        tableService.releaseTable(order.getTableId(), order.getOrderId());
+        kitchenDisplay.clearOrder(orderId);
+        printSpooler.cancelKitchenOrder(orderId, order.getTableId()); // Tickets ainda não impressos não saem
 
-        RestaurantTable table = tableRepository.findById(order.getTableId())
-                .orElseThrow(() -> new RuntimeException("Table not found for order " + orderId));
-        table.setOrderId(null);
-        table.setStartTime(null);
-        table.setStatus(TableStatus.FREE);
-        tableRepository.save(table);
+        Order canceledOrder = order.toOrder();
+        canceledOrder.setEndTime(now);
+        canceledOrder.setStatus(OrderStatus.CANCELED);
+        return canceledOrder;
+    }
 
-        return order;
+    // Carrega as comandas abertas no conjunto em memória (chamado na inicialização)
+    public void loadOpenOrders() {
+        openOrders.rebuild();
     }
-}
\ No newline at end of file
+}
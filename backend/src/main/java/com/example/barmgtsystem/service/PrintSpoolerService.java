@@ -0,0 +1,300 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.config.BackgroundThreads;
+import com.example.barmgtsystem.dto.PrinterStatus;
+import com.example.barmgtsystem.model.Sale;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Spooler das impressoras térmicas (cozinha e caixa). Cada impressora tem uma fila limitada e uma thread própria
+// que monta o ticket em ESC/POS e envia por TCP cru (porta 9100), com novas tentativas se a impressora não responder.
+// Quem pede a impressão só enfileira depois do commit e volta na hora. Com a fila cheia (impressora parada)
+// o ticket espera numa lista de excedentes, na ordem de chegada, e aparece no status da impressora:
+// um ticket de cozinha perdido é um pedido perdido.
+@Service
+public class PrintSpoolerService {
+
+    private static final long MAX_BACKOFF_MS = 10_000;
+
+    @Autowired
+    private BackgroundThreads backgroundThreads; // Threads de plataforma ou virtuais, conforme o modo
+
+    // Impressora sem host configurado fica desligada e os pedidos de impressão são ignorados
+    @Value("${bar.printing.kitchen.host:}")
+    private String kitchenHost;
+    @Value("${bar.printing.kitchen.port:9100}")
+    private int kitchenPort;
+    @Value("${bar.printing.receipt.host:}")
+    private String receiptHost;
+    @Value("${bar.printing.receipt.port:9100}")
+    private int receiptPort;
+    @Value("${bar.printing.receipt.header:Bar do Lê}")
+    private String receiptHeader;
+
+    @Value("${bar.printing.queue-capacity:64}")
+    private int queueCapacity;
+    // Janela em que adições seguidas na mesma comanda são agrupadas em um único ticket de cozinha
+    @Value("${bar.printing.coalesce-window-ms:1500}")
+    private long coalesceWindowMs;
+    @Value("${bar.printing.max-attempts:5}")
+    private int maxAttempts;
+    @Value("${bar.printing.retry-backoff-ms:500}")
+    private long retryBackoffMs;
+    @Value("${bar.printing.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+
+    private Printer kitchen;
+    private Printer receipt;
+
+    // Ticket de cozinha em formação por comanda, enviado para a fila quando a janela de agrupamento fecha
+    private final Map<String, KitchenTicket> pendingKitchenTickets = new ConcurrentHashMap<>();
+    private ScheduledExecutorService coalescer;
+
+    // Ticket já montado pela thread da impressora, no buffer dela
+    private interface PrintJob {
+        void render(EscPosRenderer renderer, ByteArrayOutputStream buffer);
+    }
+
+    private record KitchenJob(KitchenTicket ticket) implements PrintJob {
+        @Override
+        public void render(EscPosRenderer renderer, ByteArrayOutputStream buffer) {
+            renderer.renderKitchenTicket(ticket, buffer);
+        }
+    }
+
+    // Fim de uma comanda na fila da cozinha, atrás dos tickets dela. Se foi cancelada e algum ticket já saiu,
+    // imprime o aviso de cancelamento; senão só esquece a comanda.
+    private record OrderEnd(String orderId, Long tableId, boolean canceled) implements PrintJob {
+        @Override
+        public void render(EscPosRenderer renderer, ByteArrayOutputStream buffer) {
+            renderer.renderKitchenCancellation(orderId, tableId, buffer);
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        coalescer = Executors.newSingleThreadScheduledExecutor(backgroundThreads.newThreadFactory("printer-coalescer"));
+        kitchen = new Printer("kitchen", kitchenHost, kitchenPort);
+        receipt = new Printer("receipt", receiptHost, receiptPort);
+    }
+
+    // Registra a variação de quantidade de um item de cozinha. Só vale se a transação corrente fizer commit;
+    // variações da mesma comanda dentro da janela saem juntas.
+    public void printKitchenItem(String orderId, Long tableId, String productId, String productName, int quantityDelta) {
+        if (!kitchen.isEnabled() || quantityDelta == 0) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> pendingKitchenTickets.compute(orderId, (id, ticket) -> {
+            if (ticket == null) {
+                ticket = new KitchenTicket(orderId, tableId);
+                coalescer.schedule(() -> flushKitchenTicket(orderId), coalesceWindowMs, TimeUnit.MILLISECONDS);
+            }
+            ticket.add(productId, productName, quantityDelta);
+            return ticket;
+        }));
+    }
+
+    // Comanda fechada: o ticket em formação sai já, sem esperar a janela
+    public void closeKitchenOrder(String orderId, Long tableId) {
+        if (!kitchen.isEnabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> coalescer.execute(() -> {
+            flushKitchenTicket(orderId);
+            kitchen.enqueue(new OrderEnd(orderId, tableId, false));
+        }));
+    }
+
+    // Comanda cancelada: o ticket em formação e os que ainda esperam na fila não saem mais.
+    // Na thread do agrupamento, para não cruzar com um ticket sendo enviado para a fila agora.
+    public void cancelKitchenOrder(String orderId, Long tableId) {
+        if (!kitchen.isEnabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> coalescer.execute(() -> {
+            pendingKitchenTickets.remove(orderId);
+            kitchen.discardOrder(orderId);
+            kitchen.enqueue(new OrderEnd(orderId, tableId, true));
+        }));
+    }
+
+    // Enfileira o cupom da venda no caixa depois do commit
+    public void printReceipt(Sale sale) {
+        if (!receipt.isEnabled()) {
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> receipt.enqueue((renderer, buffer) -> renderer.renderReceipt(sale, buffer)));
+    }
+
+    public List<PrinterStatus> getPrinterStatuses() {
+        return List.of(kitchen.status(), receipt.status());
+    }
+
+    private void flushKitchenTicket(String orderId) {
+        // Remover antes de enfileirar: uma adição que chegar agora abre um ticket novo
+        KitchenTicket ticket = pendingKitchenTickets.remove(orderId);
+        if (ticket != null && !ticket.getLines().isEmpty()) {
+            kitchen.enqueue(new KitchenJob(ticket));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        coalescer.shutdownNow();
+        kitchen.stop();
+        receipt.stop();
+    }
+
+    // Uma impressora: fila limitada consumida por uma única thread, dona do renderer e do buffer
+    private final class Printer implements Runnable {
+        private final String name;
+        private final String host;
+        private final int port;
+        private final BlockingQueue<PrintJob> queue;
+        private final EscPosRenderer renderer = new EscPosRenderer(receiptHeader);
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(1024); // Reaproveitado a cada ticket
+        private final AtomicLong printed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        // Comandas com algum ticket já impresso; só a thread da impressora usa
+        private final Set<String> printedOrders = new HashSet<>();
+        // Tickets que chegaram com a fila cheia; voltam para a fila conforme a impressora libera espaço
+        private final Deque<PrintJob> overflow = new ArrayDeque<>();
+        private final Thread worker;
+
+        private Printer(String name, String host, int port) {
+            this.name = name;
+            this.host = host;
+            this.port = port;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            if (isEnabled()) {
+                worker = backgroundThreads.newThreadFactory("printer-" + name).newThread(this);
+                worker.start();
+            } else {
+                worker = null;
+            }
+        }
+
+        private boolean isEnabled() {
+            return host != null && !host.isBlank();
+        }
+
+        // Nunca bloqueia quem chama. Enquanto houver excedentes, os novos entram atrás deles
+        private synchronized void enqueue(PrintJob job) {
+            if (overflow.isEmpty() && queue.offer(job)) {
+                return;
+            }
+            if (overflow.isEmpty()) {
+                System.out.println("Printer " + name + " queue is full; holding tickets until it drains.");
+            }
+            overflow.addLast(job);
+        }
+
+        // Chamado pela thread da impressora depois de tirar um ticket da fila
+        private synchronized void refillFromOverflow() {
+            while (!overflow.isEmpty() && queue.offer(overflow.peekFirst())) {
+                overflow.pollFirst();
+            }
+        }
+
+        // Tira da fila e dos excedentes os tickets de cozinha da comanda que ainda não foram impressos
+        private synchronized void discardOrder(String orderId) {
+            queue.removeIf(job -> job instanceof KitchenJob kitchenJob && kitchenJob.ticket().getOrderId().equals(orderId));
+            overflow.removeIf(job -> job instanceof KitchenJob kitchenJob && kitchenJob.ticket().getOrderId().equals(orderId));
+        }
+
+        private synchronized int overflowSize() {
+            return overflow.size();
+        }
+
+        @Override
+        public void run() {
+            while (!Thread.currentThread().isInterrupted()) {
+                PrintJob job;
+                try {
+                    job = queue.take();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                refillFromOverflow();
+                if (job instanceof OrderEnd end && !(printedOrders.remove(end.orderId()) && end.canceled())) {
+                    continue; // Nada da comanda saiu, ou ela foi fechada: não há o que avisar
+                }
+                buffer.reset();
+                try {
+                    job.render(renderer, buffer);
+                } catch (RuntimeException e) {
+                    failed.incrementAndGet();
+                    System.out.println("Error rendering ticket for printer " + name + ": " + e.getMessage());
+                    continue;
+                }
+                if (send()) {
+                    printed.incrementAndGet();
+                    if (job instanceof KitchenJob kitchenJob) {
+                        printedOrders.add(kitchenJob.ticket().getOrderId());
+                    }
+                } else {
+                    failed.incrementAndGet();
+                }
+            }
+        }
+
+        // Uma conexão por ticket: impressoras na porta 9100 não confirmam o recebimento, então uma conexão
+        // parada poderia engolir o ticket sem erro. Entre as tentativas a espera dobra, até MAX_BACKOFF_MS.
+        private boolean send() {
+            long backoffMs = retryBackoffMs;
+            for (int attempt = 1; ; attempt++) {
+                try (Socket socket = new Socket()) {
+                    socket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+                    OutputStream out = socket.getOutputStream();
+                    buffer.writeTo(out);
+                    out.flush();
+                    return true;
+                } catch (IOException e) {
+                    if (attempt >= maxAttempts) {
+                        System.out.println("Error printing on " + name + " (" + host + ":" + port + "): " + e.getMessage());
+                        return false;
+                    }
+                }
+                try {
+                    Thread.sleep(backoffMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+                backoffMs = Math.min(backoffMs * 2, MAX_BACKOFF_MS);
+            }
+        }
+
+        private PrinterStatus status() {
+            return new PrinterStatus(name, isEnabled(), queue.size(), overflowSize(), printed.get(), failed.get());
+        }
+
+        private void stop() {
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+}
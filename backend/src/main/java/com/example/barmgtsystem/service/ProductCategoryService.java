@@ -14,6 +14,9 @@ public class ProductCategoryService {
     @Autowired
     private ProductCategoryRepository categoryRepository;
 
+    @Autowired
+    private CatalogService catalogService; // Snapshot do catálogo, reconstruído a cada alteração
+
     public List<ProductCategory> getAllCategories() {
         return categoryRepository.findAll();
     }
@@ -24,14 +27,18 @@ public class ProductCategoryService {
 
     public ProductCategory createCategory(ProductCategory category) {
         // Adicionar lógica de validação, se necessário (ex: nome já existe)
-        return categoryRepository.save(category);
+        ProductCategory savedCategory = categoryRepository.save(category);
+        catalogService.rebuildAfterCommit();
+        return savedCategory;
     }
 
     public ProductCategory updateCategory(String id, ProductCategory updatedCategory) {
         return categoryRepository.findById(id)
                 .map(category -> {
                     category.setName(updatedCategory.getName());
-                    return categoryRepository.save(category);
+                    ProductCategory savedCategory = categoryRepository.save(category);
+                    catalogService.rebuildAfterCommit(); // Produtos embutem a categoria, então o catálogo inteiro muda
+                    return savedCategory;
                 })
                 .orElseThrow(() -> new RuntimeException("Category not found with id " + id));
     }
@@ -39,6 +46,7 @@ public class ProductCategoryService {
     public void deleteCategory(String id) {
         // TODO: Adicionar validação se há produtos usando esta categoria antes de deletar
         categoryRepository.deleteById(id);
+        catalogService.rebuildAfterCommit();
     }
 
     public Optional<ProductCategory> getCategoryByName(String name) {
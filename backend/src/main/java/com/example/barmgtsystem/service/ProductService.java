@@ -25,6 +25,9 @@ public class ProductService {
     @Autowired
     private OrderItemRepository orderItemRepository; // Injetar OrderItemRepository
 
+    @Autowired
+    private CatalogService catalogService; // Snapshot do catálogo, reconstruído a cada alteração
+
     public List<Product> getAllProducts() {
         return productRepository.findAll();
     }
@@ -40,7 +43,9 @@ public class ProductService {
                     .orElseThrow(() -> new RuntimeException("Category not found: " + category.getName()));
             product.setCategory(existingCategory);
         }
-        return productRepository.save(product);
+        Product savedProduct = productRepository.save(product);
+        catalogService.rebuildAfterCommit();
+        return savedProduct;
     }
 
     public Product updateProduct(String id, Product updatedProduct) {
@@ -57,7 +62,9 @@ public class ProductService {
                     }
                     product.setPrice(updatedProduct.getPrice());
                     product.setSendToKitchen(updatedProduct.isSendToKitchen());
-                    return productRepository.save(product);
+                    Product savedProduct = productRepository.save(product);
+                    catalogService.rebuildAfterCommit();
+                    return savedProduct;
                 })
                 .orElseThrow(() -> new RuntimeException("Product not found with id " + id));
     }
@@ -76,5 +83,6 @@ public class ProductService {
 
         // Se não houver associações, pode deletar
         productRepository.deleteById(id);
+        catalogService.rebuildAfterCommit();
     }
 }
\ No newline at end of file
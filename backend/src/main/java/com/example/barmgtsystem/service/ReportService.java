@@ -1,32 +1,477 @@
 package com.example.barmgtsystem.service;
 
+import com.example.barmgtsystem.dto.SaleSearchCriteria;
+import com.example.barmgtsystem.dto.SalesPage;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.ArchivedSale;
+import com.example.barmgtsystem.model.DayClosing;
 import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.model.SaleItem;
+import com.example.barmgtsystem.model.SalesDailyPaymentRollup;
+import com.example.barmgtsystem.model.SalesHourlyProductRollup;
+import com.example.barmgtsystem.repository.ArchivedSaleRepository;
+import com.example.barmgtsystem.repository.DayClosingRepository;
 import com.example.barmgtsystem.repository.SaleRepository;
+import com.example.barmgtsystem.repository.SaleSpecifications;
+import com.example.barmgtsystem.repository.SalesDailyPaymentRollupRepository;
+import com.example.barmgtsystem.repository.SalesHourlyProductRollupRepository;
+import com.example.barmgtsystem.repository.SalesRollupWriter;
+import com.example.barmgtsystem.repository.SalesRollupWriter.DailyPaymentDelta;
+import com.example.barmgtsystem.repository.SalesRollupWriter.HourlyProductDelta;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
 
 @Service
 public class ReportService {
 
     @Autowired
     private SaleRepository saleRepository;
+    @Autowired
+    private SalesRollupWriter rollupWriter;
+    @Autowired
+    private SalesHourlyProductRollupRepository hourlyProductRollupRepository;
+    @Autowired
+    private SalesDailyPaymentRollupRepository dailyPaymentRollupRepository;
+    @Autowired
+    private DayClosingRepository dayClosingRepository;
+    @Autowired
+    private MeterRegistry meterRegistry; // Tempo e linhas de cada consulta, expostos em /actuator/prometheus
+    @Autowired
+    private ArchivedSaleRepository archivedSaleRepository;
+    @Autowired
+    @Lazy // Proxy: sem isso o ArchiveService (@Lazy) seria criado junto com o ReportService
+    private ArchiveService archiveService;
+
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    // Consulta de vendas com filtros, ordenação e paginação por keyset resolvidos no banco.
+    // A ordem é sempre (campo, id), então o cursor aponta para uma posição estável mesmo com vendas novas chegando.
+    @Transactional(readOnly = true)
+    public SalesPage searchSales(SaleSearchCriteria criteria) {
+        return measureQuery("search", () -> doSearchSales(criteria), page -> page.getContent().size());
+    }
+
+    private SalesPage doSearchSales(SaleSearchCriteria criteria) {
+        boolean byAmount = parseSortByAmount(criteria.getSort());
+        boolean ascending = parseAscending(criteria.getDirection());
+        int limit = criteria.getLimit() == null ? DEFAULT_PAGE_SIZE : criteria.getLimit();
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        String field = byAmount ? "totalAmount" : "timestamp";
+
+        Specification<Sale> spec = searchSpecification(criteria, field, byAmount, ascending);
+
+        Sort.Direction direction = ascending ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direction, field).and(Sort.by(direction, "id"));
+        // Busca uma linha a mais só para saber se existe próxima página
+        List<Sale> rows = saleRepository.findBy(spec, query -> query.sortBy(sort).limit(limit + 1).all());
+
+        // Período que alcança o arquivo: a mesma página lida das vendas arquivadas, intercalada na mesma ordem
+        Set<String> archivedIds = new HashSet<>();
+        if (includesArchive(criteria.getFrom() == null ? null : criteria.getFrom().atStartOfDay())) {
+            List<Sale> merged = new ArrayList<>(rows);
+            Specification<ArchivedSale> archivedSpec = searchSpecification(criteria, field, byAmount, ascending);
+            for (ArchivedSale archived : archivedSaleRepository.findBy(archivedSpec, query -> query.sortBy(sort).limit(limit + 1).all())) {
+                archivedIds.add(archived.getId());
+                merged.add(new Sale(archived.getId(), archived.getOrderId(), archived.getTableId(), List.of(),
+                        archived.getTotalAmount(), archived.getPaymentMethod(), archived.getTimestamp()));
+            }
+            Comparator<Sale> order = (byAmount ? Comparator.comparingDouble(Sale::getTotalAmount)
+                    : Comparator.comparing(Sale::getTimestamp)).thenComparing(Sale::getId);
+            merged.sort(ascending ? order : order.reversed());
+            rows = merged.subList(0, Math.min(merged.size(), limit + 1));
+        }
 
-    public List<Sale> getAllSales() {
-        return saleRepository.findAll();
+        String nextCursor = null;
+        if (rows.size() > limit) {
+            rows = rows.subList(0, limit);
+            Sale last = rows.get(limit - 1);
+            nextCursor = encodeCursor(byAmount ? Double.toString(last.getTotalAmount()) : last.getTimestamp().toString(), last.getId());
+        }
+
+        // Itens da página inteira em uma única consulta (mais uma para as vendas arquivadas), mantendo a ordem da página
+        List<Sale> content = new ArrayList<>(rows.size());
+        if (!rows.isEmpty()) {
+            List<String> hotIds = rows.stream().map(Sale::getId).filter(id -> !archivedIds.contains(id)).toList();
+            List<String> pageArchivedIds = rows.stream().map(Sale::getId).filter(archivedIds::contains).toList();
+            Map<String, Sale> withItems = new HashMap<>();
+            if (!hotIds.isEmpty()) {
+                saleRepository.findWithItemsByIdIn(hotIds).forEach(sale -> withItems.putIfAbsent(sale.getId(), sale));
+            }
+            if (!pageArchivedIds.isEmpty()) {
+                archivedSaleRepository.findWithItemsByIdIn(pageArchivedIds)
+                        .forEach(sale -> withItems.putIfAbsent(sale.getId(), sale.toSale()));
+            }
+            for (Sale sale : rows) {
+                content.add(withItems.getOrDefault(sale.getId(), sale));
+            }
+        }
+        return new SalesPage(content, nextCursor);
+    }
+
+    // Filtros e posição do cursor; serve para as vendas ativas e para as arquivadas
+    private <T> Specification<T> searchSpecification(SaleSearchCriteria criteria, String field, boolean byAmount, boolean ascending) {
+        Specification<T> spec = SaleSpecifications.matching(criteria);
+        if (criteria.getCursor() != null && !criteria.getCursor().isBlank()) {
+            String[] cursor = decodeCursor(criteria.getCursor());
+            try {
+                spec = spec.and(byAmount
+                        ? SaleSpecifications.after(field, Double.valueOf(cursor[0]), cursor[1], ascending)
+                        : SaleSpecifications.after(field, LocalDateTime.parse(cursor[0]), cursor[1], ascending));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+        return spec;
+    }
+
+    // O período começa antes do fim do arquivo? (início nulo = sem limite)
+    private boolean includesArchive(LocalDateTime start) {
+        LocalDateTime archivedBefore = archiveService.getSalesArchivedBefore();
+        return archivedBefore != null && (start == null || start.isBefore(archivedBefore));
+    }
+
+    private boolean parseSortByAmount(String sort) {
+        if (sort == null || sort.isBlank() || sort.equalsIgnoreCase("date")) {
+            return false;
+        }
+        if (sort.equalsIgnoreCase("amount")) {
+            return true;
+        }
+        throw new IllegalArgumentException("sort must be 'date' or 'amount'");
+    }
+
+    private boolean parseAscending(String direction) {
+        if (direction == null || direction.isBlank() || direction.equalsIgnoreCase("desc")) {
+            return false;
+        }
+        if (direction.equalsIgnoreCase("asc")) {
+            return true;
+        }
+        throw new IllegalArgumentException("direction must be 'asc' or 'desc'");
+    }
+
+    private static final int EXPORT_FLUSH_EVERY = 500; // Vendas por bloco enviado ao cliente
+    private static final DateTimeFormatter EXPORT_DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    // Exporta as vendas do período em CSV direto do cursor do banco para a resposta.
+    // Só a venda corrente fica em memória, então o uso de heap não depende do tamanho do período.
+    @Transactional(readOnly = true)
+    public void exportSalesCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            rowsSummary("export").record(writeSalesCsv(from, to, out));
+        } finally {
+            sample.stop(queryTimer("export"));
+        }
+    }
+
+    // Devolve o número de vendas exportadas
+    private int writeSalesCsv(LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // BOM para o Excel abrir os acentos corretamente
+        writer.write("Data,Mesa,Itens,Total,Forma de Pagamento\r\n");
+
+        int salesWritten = 0;
+        try (Stream<Object[]> rows = exportRows(from.atStartOfDay(), to.atTime(LocalTime.MAX))) {
+            String currentSaleId = null;
+            Object[] currentSale = null;
+            StringBuilder items = new StringBuilder();
+
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                String saleId = (String) row[0];
+                if (!saleId.equals(currentSaleId)) {
+                    if (currentSale != null) {
+                        writeExportLine(writer, currentSale, items);
+                        if (++salesWritten % EXPORT_FLUSH_EVERY == 0) {
+                            writer.flush(); // Entrega o bloco ao cliente em vez de acumular a resposta
+                        }
+                    }
+                    currentSaleId = saleId;
+                    currentSale = row;
+                    items.setLength(0);
+                }
+                if (row[5] != null) {
+                    if (items.length() > 0) {
+                        items.append(", ");
+                    }
+                    items.append(row[6]).append("x ").append(row[5]);
+                }
+            }
+            if (currentSale != null) {
+                writeExportLine(writer, currentSale, items);
+                salesWritten++;
+            }
+        }
+        writer.flush();
+        return salesWritten;
+    }
+
+    // Vendas arquivadas primeiro: são todas anteriores às da tabela ativa, então a ordem por data se mantém.
+    // O cursor da tabela ativa só é aberto depois que o do arquivo foi lido até o fim.
+    private Stream<Object[]> exportRows(LocalDateTime start, LocalDateTime end) {
+        if (!includesArchive(start)) {
+            return saleRepository.streamExportRows(start, end);
+        }
+        Stream<Supplier<Stream<Object[]>>> sources = Stream.of(
+                () -> archivedSaleRepository.streamExportRows(start, end),
+                () -> saleRepository.streamExportRows(start, end));
+        return sources.flatMap(Supplier::get);
+    }
+
+    private void writeExportLine(Writer writer, Object[] sale, CharSequence items) throws IOException {
+        writer.write(((LocalDateTime) sale[1]).format(EXPORT_DATE_FORMAT));
+        writer.write(",Mesa ");
+        writer.write(String.valueOf(sale[2]));
+        writer.write(',');
+        writer.write(csvField(items.toString()));
+        writer.write(',');
+        writer.write(csvField("R$ " + String.format(Locale.ROOT, "%.2f", ((Number) sale[4]).doubleValue())));
+        writer.write(',');
+        writer.write(((PaymentMethod) sale[3]).getDisplayName());
+        writer.write("\r\n");
+    }
+
+    // Aspas só quando o campo tem vírgula, aspas ou quebra de linha (RFC 4180)
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    // Cursor opaco para o cliente: base64("valor|id") da última venda da página
+    private String encodeCursor(String value, String id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((value + "|" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.lastIndexOf('|');
+            if (separator <= 0 || separator == decoded.length() - 1) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new String[]{decoded.substring(0, separator), decoded.substring(separator + 1)};
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
     }
 
     public List<Sale> getSalesByDate(LocalDate date) {
         LocalDateTime startOfDay = date.atStartOfDay();
         LocalDateTime endOfDay = date.atTime(LocalTime.MAX); // Fim do dia (23:59:59.999...)
-        return saleRepository.findByTimestampBetween(startOfDay, endOfDay);
+        return measureQuery("by_date", () -> {
+            List<Sale> sales = saleRepository.findByTimestampBetween(startOfDay, endOfDay);
+            if (!includesArchive(startOfDay)) {
+                return sales;
+            }
+            List<Sale> all = new ArrayList<>();
+            archivedSaleRepository.findByTimestampBetween(startOfDay, endOfDay).forEach(sale -> all.add(sale.toSale()));
+            all.addAll(sales);
+            return all;
+        }, List::size);
     }
 
+    @Transactional
     public void cancelSale(String saleId) {
-        saleRepository.deleteById(saleId);
+        Sale sale = saleRepository.findById(saleId).orElseThrow(() -> archivedSaleRepository.existsById(saleId)
+                ? new IllegalStateException("Sale " + saleId + " is archived and cannot be canceled.")
+                : new RuntimeException("Sale not found with id " + saleId));
+        if (dayClosingRepository.existsByBusinessDate(sale.getTimestamp().toLocalDate())) {
+            throw new IllegalStateException("Sale " + saleId + " belongs to a closed day and cannot be canceled.");
+        }
+        applyToRollups(sale, -1); // Estorna a venda dos rollups na mesma transação da exclusão
+        saleRepository.delete(sale);
+    }
+
+    // Fecha o dia (relatório Z): agrega as vendas do dia em uma consulta e congela o resultado.
+    // Um dia só pode ser fechado uma vez; a restrição única em business_date cobre fechamentos simultâneos.
+    @Transactional
+    public DayClosing closeDay(LocalDate date) {
+        if (date.isAfter(LocalDate.now())) {
+            throw new IllegalArgumentException("Cannot close a future day: " + date);
+        }
+        if (dayClosingRepository.existsByBusinessDate(date)) {
+            throw new IllegalStateException("Day " + date + " is already closed.");
+        }
+
+        Object[] row = saleRepository.summarizePeriod(date.atStartOfDay(), date.atTime(LocalTime.MAX)).get(0);
+        if (includesArchive(date.atStartOfDay())) {
+            row = mergeSummaries(row, archivedSaleRepository.summarizePeriod(date.atStartOfDay(), date.atTime(LocalTime.MAX)).get(0));
+        }
+        DayClosing closing = new DayClosing(null, date, LocalDateTime.now(),
+                ((Number) row[0]).longValue(), ((Number) row[1]).longValue(),
+                roundCents(row[2]), roundCents(row[3]), roundCents(row[4]), roundCents(row[5]), roundCents(row[6]),
+                ((Number) row[9]).longValue(), (LocalDateTime) row[7], (LocalDateTime) row[8]);
+        return dayClosingRepository.saveAndFlush(closing);
+    }
+
+    // Fechamentos passados vêm direto do snapshot gravado
+    public Optional<DayClosing> getDayClosing(LocalDate date) {
+        return dayClosingRepository.findByBusinessDate(date);
+    }
+
+    // Soma as linhas de summarizePeriod das vendas ativas e arquivadas (contagens e totais somados, primeira e última venda)
+    private Object[] mergeSummaries(Object[] hot, Object[] archived) {
+        Object[] merged = new Object[hot.length];
+        for (int i = 0; i < hot.length; i++) {
+            if (i == 7 || i == 8) {
+                LocalDateTime a = (LocalDateTime) hot[i];
+                LocalDateTime b = (LocalDateTime) archived[i];
+                if (a == null || b == null) {
+                    merged[i] = a == null ? b : a;
+                } else {
+                    merged[i] = i == 7 ? (a.isBefore(b) ? a : b) : (a.isAfter(b) ? a : b);
+                }
+            } else if (i == 0 || i == 1 || i == 9) {
+                merged[i] = ((Number) hot[i]).longValue() + ((Number) archived[i]).longValue();
+            } else {
+                merged[i] = ((Number) hot[i]).doubleValue() + ((Number) archived[i]).doubleValue();
+            }
+        }
+        return merged;
+    }
+
+    private double roundCents(Object value) {
+        return Math.round(((Number) value).doubleValue() * 100) / 100.0;
+    }
+
+    // Soma a venda recém-criada nos rollups. Chamado por OrderService.closeOrder dentro da sua transação.
+    public void recordSale(Sale sale) {
+        applyToRollups(sale, 1);
+    }
+
+    private void applyToRollups(Sale sale, int sign) {
+        LocalDateTime bucketStart = sale.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+        // Ordem fixa por produto: vendas fechadas ao mesmo tempo travam as linhas do rollup na mesma ordem (sem deadlock)
+        Map<String, HourlyProductDelta> byProduct = new TreeMap<>();
+        for (SaleItem item : sale.getItems()) {
+            long quantity = (long) sign * item.getQuantity();
+            double revenue = sign * item.getPriceAtSale() * item.getQuantity();
+            byProduct.merge(item.getProductId(),
+                    new HourlyProductDelta(bucketStart, item.getProductId(), item.getProductName(), quantity, revenue),
+                    (a, b) -> new HourlyProductDelta(bucketStart, a.productId(), a.productName(),
+                            a.quantity() + b.quantity(), a.revenue() + b.revenue()));
+        }
+        rollupWriter.applyHourlyProductDeltas(new ArrayList<>(byProduct.values()));
+        rollupWriter.applyDailyPaymentDeltas(List.of(new DailyPaymentDelta(sale.getTimestamp().toLocalDate(),
+                sale.getPaymentMethod(), sign, sign * sale.getTotalAmount())));
+    }
+
+    // Rollups por hora e produto no período (datas inclusivas)
+    public List<SalesHourlyProductRollup> getHourlyProductRollups(LocalDate from, LocalDate to) {
+        return measureQuery("hourly_rollups", () -> hourlyProductRollupRepository
+                .findByBucketStartBetweenOrderByBucketStartAscProductNameAsc(from.atStartOfDay(), to.atTime(LocalTime.MAX)),
+                List::size);
+    }
+
+    // Rollups por dia e método de pagamento no período (datas inclusivas)
+    public List<SalesDailyPaymentRollup> getDailyPaymentRollups(LocalDate from, LocalDate to) {
+        return measureQuery("daily_rollups",
+                () -> dailyPaymentRollupRepository.findBySaleDateBetweenOrderBySaleDateAscPaymentMethodAsc(from, to),
+                List::size);
+    }
+
+    // Mede a consulta (com falha ou não) e registra quantas linhas ela devolveu
+    private <T> T measureQuery(String query, Supplier<T> action, ToIntFunction<T> rowCount) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            T result = action.get();
+            rowsSummary(query).record(rowCount.applyAsInt(result));
+            return result;
+        } finally {
+            sample.stop(queryTimer(query));
+        }
+    }
+
+    // O registro devolve o mesmo medidor para o mesmo nome e tag
+    private Timer queryTimer(String query) {
+        return Timer.builder("bar.reports.query")
+                .tag("query", query)
+                .description("Duração das consultas de relatório")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary rowsSummary(String query) {
+        return DistributionSummary.builder("bar.reports.rows")
+                .tag("query", query)
+                .description("Linhas devolvidas pelas consultas de relatório")
+                .baseUnit("rows")
+                .register(meterRegistry);
+    }
+
+    // Recalcula todos os rollups a partir das vendas (agregação feita no banco).
+    // Para instalações antigas ou correções; evite rodar com o caixa em movimento.
+    @Transactional
+    public void rebuildRollups() {
+        rollupWriter.deleteAll();
+
+        // Vendas ativas e arquivadas (o upsert soma as linhas de mesma hora e produto)
+        List<Object[]> hourlyRows = new ArrayList<>(saleRepository.aggregateByHourAndProduct());
+        hourlyRows.addAll(archivedSaleRepository.aggregateByHourAndProduct());
+        List<HourlyProductDelta> hourly = new ArrayList<>();
+        for (Object[] row : hourlyRows) {
+            LocalDate date = (LocalDate) row[0];
+            int hour = ((Number) row[1]).intValue();
+            hourly.add(new HourlyProductDelta(date.atTime(hour, 0), (String) row[2], (String) row[3],
+                    ((Number) row[4]).longValue(), ((Number) row[5]).doubleValue()));
+        }
+        rollupWriter.applyHourlyProductDeltas(hourly);
+
+        List<Object[]> dailyRows = new ArrayList<>(saleRepository.aggregateByDayAndPaymentMethod());
+        dailyRows.addAll(archivedSaleRepository.aggregateByDayAndPaymentMethod());
+        List<DailyPaymentDelta> daily = new ArrayList<>();
+        for (Object[] row : dailyRows) {
+            daily.add(new DailyPaymentDelta((LocalDate) row[0], (PaymentMethod) row[1],
+                    ((Number) row[2]).longValue(), ((Number) row[3]).doubleValue()));
+        }
+        rollupWriter.applyDailyPaymentDeltas(daily);
+    }
+
+    // Na primeira subida com rollups, preenche a partir do histórico existente.
+    // Numa transação só (a chamada interna a rebuildRollups não passa pelo proxy): se falhar no meio,
+    // os rollups continuam vazios e a próxima subida tenta de novo.
+    @Transactional
+    public void backfillRollupsIfEmpty() {
+        if (dailyPaymentRollupRepository.count() == 0 && (saleRepository.count() > 0 || archivedSaleRepository.count() > 0)) {
+            rebuildRollups();
+        }
     }
-}
\ No newline at end of file
+}
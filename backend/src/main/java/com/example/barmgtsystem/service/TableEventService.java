@@ -0,0 +1,109 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.config.BackgroundThreads;
+import com.example.barmgtsystem.model.RestaurantTable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Canal de push (Server-Sent Events) com as mudanças de status das mesas.
+// Cada terminal assina uma vez, recebe um snapshot completo e depois apenas as mesas alteradas.
+@Service
+public class TableEventService {
+
+    private static final long EMITTER_TIMEOUT_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long HEARTBEAT_SECONDS = 25;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final AtomicLong eventSequence = new AtomicLong();
+
+    @Autowired
+    private BackgroundThreads backgroundThreads; // Threads de plataforma ou virtuais, conforme o modo
+
+    // Envio em thread própria para não segurar a requisição que alterou a mesa
+    private ExecutorService dispatcher;
+    // Comentários periódicos mantêm a conexão aberta através de proxies
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void start() {
+        dispatcher = Executors.newSingleThreadExecutor(backgroundThreads.newThreadFactory("table-events"));
+        heartbeat = Executors.newSingleThreadScheduledExecutor(backgroundThreads.newThreadFactory("table-events-heartbeat"));
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeat, HEARTBEAT_SECONDS, HEARTBEAT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    // Registra um novo terminal e envia o snapshot de resincronização (também usado em reconexões)
+    public SseEmitter subscribe(Supplier<List<RestaurantTable>> snapshot) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(e -> emitters.remove(emitter));
+
+        // Leitura do snapshot, envio e registro no mesmo dispatcher dos eventos: nenhuma alteração se perde entre
+        // o snapshot e o registro, e os envios ao emitter não se sobrepõem
+        dispatcher.execute(() -> {
+            try {
+                emitter.send(SseEmitter.event()
+                        .id(String.valueOf(eventSequence.get()))
+                        .name("snapshot")
+                        .data(snapshot.get()));
+                emitters.add(emitter);
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return emitter;
+    }
+
+    // Publica a mesa alterada para todos os terminais. Chamado com o estado já confirmado (depois do commit)
+    public void publishTableUpdate(RestaurantTable table) {
+        // Copia o estado agora, pois a entidade pode continuar sendo alterada depois
+        RestaurantTable delta = new RestaurantTable(table.getId(), table.getStatus(), table.getOrderId(), table.getStartTime());
+        dispatcher.execute(() -> broadcast(delta));
+    }
+
+    private void broadcast(RestaurantTable delta) {
+        String eventId = String.valueOf(eventSequence.incrementAndGet());
+        for (SseEmitter emitter : emitters) {
+            try {
+                // O builder não pode ser reaproveitado entre emitters
+                emitter.send(SseEmitter.event().id(eventId).name("table").data(delta));
+            } catch (IOException | IllegalStateException e) {
+                // Terminal desconectado: remove e deixa o navegador reconectar (recebendo novo snapshot)
+                emitters.remove(emitter);
+            }
+        }
+    }
+
+    private void sendHeartbeat() {
+        dispatcher.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                try {
+                    emitter.send(SseEmitter.event().comment("ping"));
+                } catch (IOException | IllegalStateException e) {
+                    emitters.remove(emitter);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        dispatcher.shutdownNow();
+        emitters.forEach(SseEmitter::complete);
+        emitters.clear();
+    }
+}
@@ -1,18 +1,38 @@
 package com.example.barmgtsystem.service;
 
+import com.example.barmgtsystem.model.Order; // Importa a classe Order
 import com.example.barmgtsystem.model.RestaurantTable; // Importa a classe RestaurantTable
+import com.example.barmgtsystem.enums.OrderStatus; // Importa o enum OrderStatus do seu pacote 'enums'
 import com.example.barmgtsystem.enums.TableStatus; // Importa o enum TableStatus do seu pacote 'enums'
+import com.example.barmgtsystem.repository.OrderRepository;
 import com.example.barmgtsystem.repository.RestaurantTableRepository; // Importa o repositório correto
 
+import com.example.barmgtsystem.config.BackgroundThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
 
 @Service
 public class TableService {
@@ -20,10 +40,77 @@ public class TableService {
     @Autowired
     private RestaurantTableRepository tableRepository;
 
-    // Scheduler para verificar o status das mesas (alerta)
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    @Autowired
+    private OrderRepository orderRepository; // Fonte durável das transições (comandas OPEN) usada na reconstrução
+
+    @Autowired
+    private TableEventService tableEventService; // Publica as mudanças de status para os terminais
+
+    @Autowired
+    private BackgroundThreads backgroundThreads; // Threads de plataforma ou virtuais, conforme o modo
+
+    @Autowired
+    private MeterRegistry meterRegistry; // Mesas por status e custo dos alertas, expostos em /actuator/prometheus
+
+    // Intervalo da persistência assíncrona (write-behind) dos alertas das mesas
+    @Value("${bar.tables.flush-interval-ms:2000}")
+    private long flushIntervalMs;
+
+    // Tempo de ocupação a partir do qual a mesa entra em alerta
+    @Value("${bar.tables.alert-threshold-minutes:30}")
+    private long alertThresholdMinutes;
+
+    // Scheduler para os alertas das mesas e para gravar as mesas alteradas.
+    // A fila interna é ordenada por prazo, então a thread só acorda quando algo vence.
+    private ScheduledThreadPoolExecutor scheduler;
+    // Alerta agendado de cada mesa ocupada (startTime + limite)
+    private final Map<Long, ScheduledFuture<?>> alertTimers = new ConcurrentHashMap<>();
+    // Carga do registro (lê o banco). Lock explícito em vez de synchronized: I/O dentro de synchronized
+    // prende a virtual thread à thread de plataforma no modo virtual.
+    private final ReentrantLock registryLock = new ReentrantLock();
+    // Duração de cada ciclo de gravação dos alertas e atraso entre o prazo da mesa e o alerta disparado
+    private Timer alertFlushTimer;
+    private Timer alertDelayTimer;
 
-    // Método para inicializar as mesas, se o banco de dados estiver vazio
+    @PostConstruct
+    public void startScheduler() {
+        scheduler = new ScheduledThreadPoolExecutor(1, backgroundThreads.newThreadFactory("table-monitor"));
+        scheduler.setRemoveOnCancelPolicy(true); // Alertas desarmados saem da fila imediatamente
+        registerMetrics();
+    }
+
+    private void registerMetrics() {
+        // Lidos do registro em memória a cada coleta, sem ir ao banco
+        for (TableStatus status : TableStatus.values()) {
+            Gauge.builder("bar.tables", this, service -> service.countTables(status))
+                    .tag("status", status.name())
+                    .description("Mesas em cada status")
+                    .register(meterRegistry);
+        }
+        alertFlushTimer = Timer.builder("bar.tables.alert.flush")
+                .description("Duração da gravação dos alertas pendentes das mesas")
+                .register(meterRegistry);
+        alertDelayTimer = Timer.builder("bar.tables.alert.delay")
+                .description("Atraso entre o prazo da mesa e o disparo do alerta")
+                .register(meterRegistry);
+    }
+
+    // Registro em memória, espelho das mesas para leitura e alertas. Ocupar e liberar uma mesa são decididos
+    // no banco por UPDATEs condicionais (claimTable/releaseTable); o registro só acompanha o resultado,
+    // depois do commit (applyAfterCommit).
+    // Cada entrada é o lock da sua própria mesa, então mesas diferentes nunca disputam o mesmo lock.
+    private final Map<Long, RestaurantTable> registry = new ConcurrentHashMap<>();
+    // Mesas que entraram em ALERT e ainda não foram gravadas no banco
+    private final Set<Long> pendingAlerts = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean flushStarted = new AtomicBoolean(false);
+    private volatile boolean registryLoaded = false;
+
+    // Mesa do aquecimento (WarmupService): id fora da numeração do salão, com a linha criada dentro da transação de
+    // rascunho. Fica fora do registro, então os terminais não a veem e nenhuma mesa do salão é ocupada no aquecimento.
+    public static final long WARMUP_TABLE_ID = -1L;
+    private final Map<Long, RestaurantTable> warmupTables = new ConcurrentHashMap<>();
+
+    // Método para inicializar as mesas, se o banco de dados estiver vazio, e carregar o registro em memória
     public void initializeTables(int numberOfTables) {
         if (tableRepository.count() == 0) {
             // Cria novas mesas usando o construtor gerado pelo Lombok @AllArgsConstructor
@@ -31,43 +118,255 @@ public class TableService {
                 tableRepository.save(new RestaurantTable(null, TableStatus.FREE, null, null));
             }
         }
+        loadRegistry();
+    }
+
+    // Reconstrói o registro a partir do banco (apenas mesas ainda não carregadas). O alerta da mesa pode estar atrasado (write-behind)
+    // e bancos antigos podem ter linhas divergentes; as comandas OPEN decidem o estado real de cada mesa.
+    public void loadRegistry() {
+        registryLock.lock();
+        try {
+            loadMissingTables();
+        } finally {
+            registryLock.unlock();
+        }
+    }
+
+    private void loadMissingTables() {
+        Map<Long, Order> openOrdersByTable = new HashMap<>();
+        for (Order order : orderRepository.findByStatus(OrderStatus.OPEN)) {
+            openOrdersByTable.put(order.getTableId(), order);
+        }
+
+        List<RestaurantTable> corrections = new ArrayList<>();
+        for (RestaurantTable table : tableRepository.findAll()) {
+            if (registry.containsKey(table.getId())) {
+                continue; // Mesa já carregada: o registro em memória é mais recente que o banco
+            }
+            Order openOrder = openOrdersByTable.get(table.getId());
+            RestaurantTable state = openOrder == null
+                    ? new RestaurantTable(table.getId(), TableStatus.FREE, null, null)
+                    : new RestaurantTable(table.getId(),
+                            table.getStatus() == TableStatus.ALERT && openOrder.getId().equals(table.getOrderId())
+                                    ? TableStatus.ALERT : TableStatus.OCCUPIED,
+                            openOrder.getId(), openOrder.getStartTime());
+            if (state.getStatus() != table.getStatus()
+                    || !Objects.equals(state.getOrderId(), table.getOrderId())
+                    || !Objects.equals(state.getStartTime(), table.getStartTime())) {
+                corrections.add(copyOf(state)); // Corrige a linha antes de aceitar ocupações: o UPDATE condicional depende dela
+            }
+            registry.put(table.getId(), state);
+        }
+        if (!corrections.isEmpty()) {
+            tableRepository.saveAll(corrections);
+        }
+
+        registryLoaded = true;
+
+        if (flushStarted.compareAndSet(false, true)) {
+            scheduler.scheduleWithFixedDelay(this::flushPendingAlerts, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
     }
 
     public List<RestaurantTable> getAllTables() {
-        return tableRepository.findAll();
+        ensureRegistryLoaded();
+        List<RestaurantTable> tables = new ArrayList<>(registry.size());
+        for (RestaurantTable table : registry.values()) {
+            tables.add(snapshotOf(table));
+        }
+        tables.sort(Comparator.comparing(RestaurantTable::getId));
+        return tables;
     }
 
     public Optional<RestaurantTable> getTableById(Long id) {
-        return tableRepository.findById(id);
+        ensureRegistryLoaded();
+        return Optional.ofNullable(registry.get(id)).map(this::snapshotOf);
     }
 
     public RestaurantTable updateTableStatus(Long id, TableStatus status, String orderId, LocalDateTime startTime) {
-        return tableRepository.findById(id)
-                .map(table -> {
-                    table.setStatus(status); // Chamada de método gerado pelo Lombok
-                    table.setOrderId(orderId); // Chamada de método gerado pelo Lombok
-                    table.setStartTime(startTime); // Chamada de método gerado pelo Lombok
-                    return tableRepository.save(table);
-                })
-                .orElseThrow(() -> new RuntimeException("Table not found with id " + id));
+        RestaurantTable table = requireTable(id);
+        RestaurantTable updated = new RestaurantTable(id, status, orderId, startTime);
+        tableRepository.save(copyOf(updated));
+        applyAfterCommit(table, null, updated);
+        return updated;
+    }
+
+    // Ocupa uma mesa livre com a comanda informada; falha se outra comanda chegou primeiro.
+    // O banco decide em um único UPDATE condicional, mesmo com vários terminais (ou instâncias) ao mesmo tempo.
+    public RestaurantTable occupyTable(Long id, String orderId, LocalDateTime startTime) {
+        RestaurantTable table = requireTable(id);
+        if (table.getStatus() != TableStatus.FREE // Falha rápida sem ir ao banco
+                || tableRepository.claimTable(id, orderId, startTime) == 0) {
+            throw new OrderRejectedException(OrderRejectedException.TABLE_TAKEN, "Table " + id + " is not free to start a new order.");
+        }
+        RestaurantTable occupied = new RestaurantTable(id, TableStatus.OCCUPIED, orderId, startTime);
+        applyAfterCommit(table, null, occupied);
+        return occupied;
+    }
+
+    // Libera a mesa ao fechar ou cancelar a comanda; não mexe na mesa se ela já pertence a outra comanda
+    public RestaurantTable releaseTable(Long id, String orderId) {
+        RestaurantTable table = requireTable(id);
+        tableRepository.releaseTable(id, orderId);
+        RestaurantTable released = new RestaurantTable(id, TableStatus.FREE, null, null);
+        applyAfterCommit(table, orderId, released);
+        return released;
+    }
+
+    // Cria a mesa do aquecimento na transação corrente, que deve terminar em rollback: a linha e a mesa em memória
+    // existem só até o fim dela
+    public Long createWarmupTable() {
+        tableRepository.insertFreeTable(WARMUP_TABLE_ID);
+        RestaurantTable table = new RestaurantTable(WARMUP_TABLE_ID, TableStatus.FREE, null, null);
+        warmupTables.put(WARMUP_TABLE_ID, table);
+        TransactionCallbacks.afterCompletion(() -> warmupTables.remove(WARMUP_TABLE_ID, table));
+        return WARMUP_TABLE_ID;
+    }
+
+    // Leva o estado gravado pela transação corrente ao registro e aos terminais só depois do commit (na hora, fora
+    // de transação): getAllTables, o snapshot do stream e os eventos nunca mostram um estado que ainda pode ser
+    // desfeito. Com rollback nada muda em memória. Com expectedOrderId, só aplica se a mesa ainda for dessa comanda
+    // (outra comanda pode ter ocupado a mesa e feito commit antes deste callback).
+    private void applyAfterCommit(RestaurantTable table, String expectedOrderId, RestaurantTable state) {
+        TransactionCallbacks.afterCommit(() -> {
+            synchronized (table) {
+                if (expectedOrderId != null && !Objects.equals(table.getOrderId(), expectedOrderId)) {
+                    return;
+                }
+                table.setStatus(state.getStatus());
+                table.setOrderId(state.getOrderId());
+                table.setStartTime(state.getStartTime());
+                syncAlertTimer(table);
+                tableEventService.publishTableUpdate(table);
+            }
+        });
+    }
+
+    // Grava os alertas disparados desde o último ciclo. Cada UPDATE é condicional à comanda que gerou o alerta,
+    // então um alerta atrasado nunca sobrescreve uma mesa já liberada ou ocupada por outra comanda.
+    private void flushPendingAlerts() {
+        alertFlushTimer.record(this::writePendingAlerts);
+    }
+
+    private void writePendingAlerts() {
+        try {
+            for (Long id : pendingAlerts) {
+                pendingAlerts.remove(id);
+                RestaurantTable table = registry.get(id);
+                if (table == null) {
+                    continue;
+                }
+                RestaurantTable snapshot = snapshotOf(table);
+                if (snapshot.getStatus() != TableStatus.ALERT) {
+                    continue; // A mesa foi liberada antes da gravação
+                }
+                try {
+                    tableRepository.markAlert(id, snapshot.getOrderId());
+                } catch (RuntimeException e) {
+                    pendingAlerts.add(id); // Mantém o alerta pendente para a próxima tentativa
+                    System.out.println("Error persisting table alert: " + e.getMessage());
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Error in table flush: " + e.getMessage());
+        }
     }
 
-    // Método para iniciar a verificação de alerta de mesas
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flushPendingAlerts(); // Grava o que estiver pendente antes de desligar
+    }
+
+    // Método para iniciar a verificação de alerta de mesas: arma o alerta de todas as mesas já ocupadas
+    // (as demais são armadas em occupyTable). Pode ser chamado mais de uma vez.
     public void startTableStatusMonitoring() {
-        // Monitora a cada minuto
-        scheduler.scheduleAtFixedRate(this::checkTableAlerts, 1, 1, TimeUnit.MINUTES);
-    }
-
-    private void checkTableAlerts() {
-        List<RestaurantTable> tables = tableRepository.findAll();
-        for (RestaurantTable table : tables) {
-            if (table.getStatus() == TableStatus.OCCUPIED && table.getStartTime() != null) { // Chamada de método gerado pelo Lombok
-                long minutesElapsed = java.time.Duration.between(table.getStartTime(), LocalDateTime.now()).toMinutes(); // Chamada de método gerado pelo Lombok
-                if (minutesElapsed >= 30) { // Alerta após 30 minutos
-                    table.setStatus(TableStatus.ALERT); // Chamada de método gerado pelo Lombok
-                    tableRepository.save(table);
+        ensureRegistryLoaded();
+        for (RestaurantTable table : registry.values()) {
+            synchronized (table) {
+                syncAlertTimer(table);
+            }
+        }
+    }
+
+    // Deve ser chamado com o lock da mesa. Arma o alerta de mesas ocupadas e desarma o das demais.
+    private void syncAlertTimer(RestaurantTable table) {
+        Long tableId = table.getId();
+        ScheduledFuture<?> previousTimer = alertTimers.remove(tableId);
+        if (previousTimer != null) {
+            previousTimer.cancel(false);
+        }
+        if (table.getStatus() != TableStatus.OCCUPIED || table.getStartTime() == null) {
+            return;
+        }
+        String orderId = table.getOrderId();
+        LocalDateTime deadline = table.getStartTime().plusMinutes(alertThresholdMinutes);
+        long delayMs = Math.max(0, Duration.between(LocalDateTime.now(), deadline).toMillis());
+        alertTimers.put(tableId, scheduler.schedule(() -> fireTableAlert(tableId, orderId, deadline), delayMs, TimeUnit.MILLISECONDS));
+    }
+
+    // Executado no prazo exato da mesa; ignora o alerta se a comanda já foi fechada ou trocada
+    private void fireTableAlert(Long tableId, String orderId, LocalDateTime deadline) {
+        RestaurantTable table = registry.get(tableId);
+        if (table == null) {
+            return;
+        }
+        synchronized (table) {
+            if (table.getStatus() == TableStatus.OCCUPIED && Objects.equals(table.getOrderId(), orderId)) {
+                alertTimers.remove(tableId);
+                table.setStatus(TableStatus.ALERT);
+                pendingAlerts.add(tableId);
+                tableEventService.publishTableUpdate(table);
+                Duration delay = Duration.between(deadline, LocalDateTime.now());
+                alertDelayTimer.record(delay.isNegative() ? Duration.ZERO : delay);
+            }
+        }
+    }
+
+    private long countTables(TableStatus status) {
+        long count = 0;
+        for (RestaurantTable table : registry.values()) {
+            if (table.getStatus() == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Requisições que chegam antes do CommandLineRunner carregam o registro na hora
+    private void ensureRegistryLoaded() {
+        if (!registryLoaded) {
+            registryLock.lock();
+            try {
+                if (!registryLoaded) {
+                    loadMissingTables();
                 }
+            } finally {
+                registryLock.unlock();
             }
         }
     }
-}
\ No newline at end of file
+
+    private RestaurantTable requireTable(Long id) {
+        ensureRegistryLoaded();
+        RestaurantTable table = registry.get(id);
+        if (table == null) {
+            table = warmupTables.get(id);
+        }
+        if (table == null) {
+            throw new OrderRejectedException(OrderRejectedException.NOT_FOUND, "Table not found with id " + id);
+        }
+        return table;
+    }
+
+    // As entidades do registro nunca saem do serviço; quem chama recebe uma cópia consistente
+    private RestaurantTable snapshotOf(RestaurantTable table) {
+        synchronized (table) {
+            return copyOf(table);
+        }
+    }
+
+    private RestaurantTable copyOf(RestaurantTable table) {
+        return new RestaurantTable(table.getId(), table.getStatus(), table.getOrderId(), table.getStartTime());
+    }
+}
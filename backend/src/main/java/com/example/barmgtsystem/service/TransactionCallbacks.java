@@ -0,0 +1,72 @@
+package com.example.barmgtsystem.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Utilitário para adiar efeitos colaterais (notificações, filas, caches) até o fim da transação atual.
+// Fora de uma transação, a ação é executada imediatamente.
+final class TransactionCallbacks {
+
+    // Chave das compensações da transação corrente (recurso da transação)
+    private static final Object COMPENSATIONS = new Object();
+
+    private TransactionCallbacks() {
+    }
+
+    // Executa a ação somente depois do commit, para nunca publicar um estado que pode sofrer rollback
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // Executa a ação de compensação se a transação atual sofrer rollback (no-op fora de transação).
+    // As compensações rodam na ordem inversa do registro: duas alterações do mesmo estado na mesma transação
+    // são desfeitas da última para a primeira.
+    @SuppressWarnings("unchecked")
+    static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Deque<Runnable> compensations = (Deque<Runnable>) TransactionSynchronizationManager.getResource(COMPENSATIONS);
+        if (compensations == null) {
+            Deque<Runnable> registered = new ArrayDeque<>();
+            TransactionSynchronizationManager.bindResource(COMPENSATIONS, registered);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(COMPENSATIONS);
+                    if (status == STATUS_ROLLED_BACK) {
+                        registered.forEach(Runnable::run); // Do topo da pilha: a última registrada primeiro
+                    }
+                }
+            });
+            compensations = registered;
+        }
+        compensations.push(action);
+    }
+
+    // Executa a ação ao final da transação atual, com commit ou rollback (imediatamente fora de transação)
+    static void afterCompletion(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                action.run();
+            }
+        });
+    }
+}
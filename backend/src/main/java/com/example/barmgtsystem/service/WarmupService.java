@@ -0,0 +1,220 @@
+package com.example.barmgtsystem.service;
+
+import com.example.barmgtsystem.dto.SaleSearchCriteria;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.enums.WarmupState;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Aquecimento na subida, antes de aceitar os terminais: abre as conexões do pool e repete os caminhos quentes de
+// comandas, produtos e relatórios (JIT, metadados do Hibernate, caches de consulta) até o p99 de cada caminho
+// parar de variar entre rodadas. Chamado pelo CommandLineRunner: enquanto ele roda, /actuator/health/readiness
+// responde OUT_OF_SERVICE. Depois o resultado continua na readiness (WarmupHealthIndicator).
+@Service
+public class WarmupService {
+
+    private static final String ORDER_PATH = "order";
+    private static final String PRODUCT_PATH = "product";
+    private static final String REPORT_PATH = "report";
+
+    @Autowired
+    private OrderService orderService;
+    @Autowired
+    private CatalogService catalogService;
+    @Autowired
+    private ReportService reportService;
+    @Autowired
+    private TableService tableService;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${bar.warmup.enabled:true}")
+    private boolean enabled;
+
+    // Iterações de cada caminho por rodada; o p99 é calculado por rodada
+    @Value("${bar.warmup.iterations-per-round:100}")
+    private int iterationsPerRound;
+
+    // Variação máxima do p99 entre duas rodadas seguidas para o caminho contar como estável
+    @Value("${bar.warmup.p99-tolerance-percent:20}")
+    private int p99TolerancePercent;
+
+    // Rodadas estáveis seguidas (todos os caminhos) para encerrar o aquecimento
+    @Value("${bar.warmup.stable-rounds:2}")
+    private int stableRounds;
+
+    // Limite do aquecimento: depois disso a readiness aceita tráfego como DEGRADED, sem o p99 estável
+    @Value("${bar.warmup.max-seconds:60}")
+    private long maxSeconds;
+
+    // Resultado do último aquecimento e p99 (ms) de cada caminho na última rodada
+    private volatile WarmupState state = WarmupState.NOT_STARTED;
+    private volatile Map<String, Double> lastP99 = Map.of();
+
+    // STABLE se o p99 de todos os caminhos estabilizou dentro do limite de tempo, UNSTABLE se o limite chegou antes,
+    // FAILED se algum caminho lançou exceção
+    public WarmupState warmUp() {
+        if (!enabled) {
+            state = WarmupState.DISABLED;
+            return state;
+        }
+        state = WarmupState.RUNNING;
+        long start = System.nanoTime();
+        long deadline = start + maxSeconds * 1_000_000_000L;
+        primeConnectionPool();
+
+        Map<String, Double> previousP99 = new LinkedHashMap<>();
+        int stable = 0;
+        int rounds = 0;
+        try {
+            while (stable < stableRounds && System.nanoTime() < deadline) {
+                Map<String, Double> p99 = runRound();
+                rounds++;
+                stable = isStable(previousP99, p99) ? stable + 1 : 0;
+                previousP99 = p99;
+                lastP99 = p99;
+            }
+        } catch (RuntimeException e) {
+            // Caminho quente quebrado: a aplicação sobe, mas a readiness continua recusando tráfego
+            System.out.println("Error during warm-up, readiness stays OUT_OF_SERVICE: " + e.getMessage());
+            state = WarmupState.FAILED;
+            return state;
+        }
+
+        state = stable >= stableRounds ? WarmupState.STABLE : WarmupState.UNSTABLE;
+        System.out.println((state == WarmupState.STABLE ? "Warm-up finished" : "Warm-up stopped at the time limit without stable p99")
+                + " after " + rounds + " rounds in " + (System.nanoTime() - start) / 1_000_000 + " ms, p99 (ms) " + previousP99);
+        return state;
+    }
+
+    public WarmupState getState() {
+        return state;
+    }
+
+    public Map<String, Double> getLastP99() {
+        return lastP99;
+    }
+
+    // Abre de uma vez as conexões que o pool mantém ociosas (minimum-idle), em vez de deixar o Hikari
+    // completá-las aos poucos em segundo plano enquanto os primeiros pedidos chegam
+    private void primeConnectionPool() {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            if (!dataSource.isWrapperFor(HikariDataSource.class)) {
+                return;
+            }
+            int minimumIdle = dataSource.unwrap(HikariDataSource.class).getMinimumIdle();
+            for (int i = 0; i < minimumIdle; i++) {
+                connections.add(dataSource.getConnection());
+            }
+        } catch (SQLException e) {
+            System.out.println("Error priming the connection pool: " + e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close(); // Devolve ao pool
+                } catch (SQLException e) {
+                    System.out.println("Error returning warm-up connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private Map<String, Double> runRound() {
+        Map<String, long[]> samples = new LinkedHashMap<>();
+        samples.put(ORDER_PATH, new long[iterationsPerRound]);
+        samples.put(PRODUCT_PATH, new long[iterationsPerRound]);
+        samples.put(REPORT_PATH, new long[iterationsPerRound]);
+        for (int i = 0; i < iterationsPerRound; i++) {
+            int iteration = i;
+            // Transação de rascunho: tudo o que as chamadas gravam é desfeito no final, e os efeitos fora do banco
+            // (tickets de cozinha, impressão, eventos das mesas, conjunto de comandas abertas) só saem no commit
+            transactionTemplate.executeWithoutResult(status -> {
+                status.setRollbackOnly();
+                // Produtos como os terminais os leem: o snapshot do catálogo (GET /api/products) e a busca
+                // por id que cada item lançado faz nele
+                long productStart = System.nanoTime();
+                CatalogService.CatalogSnapshot catalog = catalogService.getSnapshot();
+                Collection<Product> products = catalog.getProducts();
+                if (!products.isEmpty()) {
+                    catalogService.findProduct(products.iterator().next().getId());
+                }
+                samples.get(PRODUCT_PATH)[iteration] = System.nanoTime() - productStart;
+                Long warmupTable = tableService.createWarmupTable();
+                samples.get(ORDER_PATH)[iteration] = timed(() -> exerciseOrder(warmupTable, products));
+                samples.get(REPORT_PATH)[iteration] = timed(() -> {
+                    LocalDate today = LocalDate.now();
+                    reportService.getSalesByDate(today);
+                    reportService.searchSales(new SaleSearchCriteria());
+                    reportService.getDailyPaymentRollups(today, today);
+                });
+            });
+        }
+
+        Map<String, Double> p99 = new LinkedHashMap<>();
+        samples.forEach((path, durations) -> p99.put(path, p99Millis(durations)));
+        return p99;
+    }
+
+    // Abre uma comanda na mesa do aquecimento, lança e altera itens e fecha com pagamento (ou cancela, sem produtos).
+    // A mesa existe só na transação de rascunho, fora do registro: nenhuma mesa do salão fica ocupada, mesmo com o
+    // Tomcat já aceitando conexões.
+    private void exerciseOrder(Long tableId, Collection<Product> products) {
+        Order order = orderService.startOrder(tableId);
+        if (products.isEmpty()) {
+            orderService.cancelOrder(order.getId());
+            return;
+        }
+        Order withItems = null;
+        for (Product product : products.stream().limit(3).toList()) {
+            withItems = orderService.addItemToOrder(order.getId(), product.getId(), 1);
+        }
+        orderService.updateOrderItemQuantity(order.getId(), withItems.getItems().get(0).getId(), 2);
+        orderService.closeOrder(order.getId(), PaymentMethod.PIX);
+    }
+
+    // Estável quando o p99 de todos os caminhos variou no máximo a tolerância em relação à rodada anterior
+    private boolean isStable(Map<String, Double> previous, Map<String, Double> current) {
+        if (previous.isEmpty()) {
+            return false;
+        }
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            double before = previous.get(entry.getKey());
+            if (Math.abs(entry.getValue() - before) > before * p99TolerancePercent / 100.0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long timed(Runnable action) {
+        long start = System.nanoTime();
+        action.run();
+        return System.nanoTime() - start;
+    }
+
+    private static double p99Millis(long[] durations) {
+        long[] sorted = durations.clone();
+        Arrays.sort(sorted);
+        int index = Math.max(0, (int) Math.ceil(sorted.length * 0.99) - 1);
+        return Math.round(sorted[index] / 10_000.0) / 100.0; // Em ms, com duas casas
+    }
+}
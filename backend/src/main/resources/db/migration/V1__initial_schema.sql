@@ -0,0 +1,85 @@
+-- Esquema inicial: as tabelas como o Hibernate (ddl-auto=update) as criava até a adoção das migrações.
+-- Bancos já existentes entram direto na versão 1, sem executar este script (spring.flyway.baseline-on-migrate),
+-- e recebem as versões seguintes.
+
+create table order_items (
+    id bigint not null auto_increment,
+    price_at_order float(53) not null,
+    quantity integer not null,
+    send_to_kitchen bit not null,
+    order_id varchar(255) not null,
+    product_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table orders (
+    id varchar(255) not null,
+    total_amount float(53) not null,
+    end_time datetime(6),
+    start_time datetime(6) not null,
+    table_id bigint not null,
+    payment_method enum ('CASH','CREDIT','DEBIT','PIX'),
+    status enum ('CANCELED','OPEN','PAID') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table product_categories (
+    id varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table products (
+    id varchar(255) not null,
+    price float(53) not null,
+    send_to_kitchen bit not null,
+    category_id varchar(255) not null,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table sale_items (
+    id bigint not null auto_increment,
+    price_at_sale float(53) not null,
+    quantity integer not null,
+    send_to_kitchen bit not null,
+    product_id varchar(255),
+    product_name varchar(255) not null,
+    sale_id varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table sales (
+    id varchar(255) not null,
+    total_amount float(53) not null,
+    table_id bigint not null,
+    timestamp datetime(6) not null,
+    order_id varchar(255),
+    payment_method enum ('CASH','CREDIT','DEBIT','PIX') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table tables (
+    id bigint not null auto_increment,
+    start_time datetime(6),
+    order_id varchar(255),
+    status enum ('ALERT','FREE','OCCUPIED') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table users (
+    id bigint not null auto_increment,
+    password varchar(255) not null,
+    username varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+-- Restrições únicas (nomes gerados pelo Hibernate, iguais aos dos bancos existentes)
+alter table product_categories add constraint UKfl075bwasjwsxybk4x174befx unique (name);
+alter table users add constraint UKr43af9ap4edm43mmtq01oddj6 unique (username);
+
+-- Chaves estrangeiras
+alter table order_items add constraint FKbioxgbv59vetrxe0ejfubep1w foreign key (order_id) references orders (id);
+alter table order_items add constraint FKocimc7dtr037rh4ls4l95nlfi foreign key (product_id) references products (id);
+alter table products add constraint FK6t5dtw6tyo83ywljwohuc6g7k foreign key (category_id) references product_categories (id);
+alter table sale_items add constraint FK7tcpbc5c5mpnm8fl2phl8ep7l foreign key (sale_id) references sales (id);
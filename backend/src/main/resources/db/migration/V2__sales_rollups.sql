@@ -0,0 +1,24 @@
+-- Rollups de vendas: receita por dia e forma de pagamento, e por hora e produto. Bancos com vendas antigas são
+-- preenchidos na inicialização (ReportService.backfillRollupsIfEmpty).
+
+create table sales_daily_payment_rollups (
+    id bigint not null auto_increment,
+    revenue float(53) not null,
+    sale_date date not null,
+    sale_count bigint not null,
+    payment_method enum ('CASH','CREDIT','DEBIT','PIX') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table sales_hourly_product_rollups (
+    id bigint not null auto_increment,
+    revenue float(53) not null,
+    bucket_start datetime(6) not null,
+    quantity bigint not null,
+    product_id varchar(255) not null,
+    product_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table sales_daily_payment_rollups add constraint uk_daily_rollup_date_method unique (sale_date, payment_method);
+alter table sales_hourly_product_rollups add constraint uk_hourly_rollup_bucket_product unique (bucket_start, product_id);
@@ -0,0 +1,4 @@
+-- Paginação das vendas por chave (keyset): ordem por data ou por valor, com o id como desempate
+
+create index idx_sales_timestamp_id on sales (timestamp, id);
+create index idx_sales_total_amount_id on sales (total_amount, id);
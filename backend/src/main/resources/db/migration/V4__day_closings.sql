@@ -0,0 +1,20 @@
+-- Fechamento do dia: um resumo gravado por data de movimento
+
+create table day_closings (
+    id bigint not null auto_increment,
+    business_date date not null,
+    cash_amount float(53) not null,
+    credit_amount float(53) not null,
+    debit_amount float(53) not null,
+    pix_amount float(53) not null,
+    total_amount float(53) not null,
+    canceled_order_count bigint not null,
+    closed_at datetime(6) not null,
+    first_sale_at datetime(6),
+    item_count bigint not null,
+    last_sale_at datetime(6),
+    sale_count bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table day_closings add constraint uk_day_closing_business_date unique (business_date);
@@ -0,0 +1,4 @@
+-- Versão da comanda (@Version): alterações simultâneas da mesma comanda por terminais diferentes.
+-- As comandas existentes começam na versão 0.
+
+alter table orders add column version bigint not null default 0;
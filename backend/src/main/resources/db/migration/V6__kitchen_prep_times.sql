@@ -0,0 +1,18 @@
+-- Tempos de preparo dos itens concluídos na tela da cozinha e do bar
+
+create table kitchen_prep_times (
+    id bigint not null auto_increment,
+    quantity integer not null,
+    acknowledged_at datetime(6),
+    bumped_at datetime(6) not null,
+    created_at datetime(6) not null,
+    prep_seconds bigint not null,
+    table_id bigint,
+    order_id varchar(255) not null,
+    product_id varchar(255) not null,
+    product_name varchar(255) not null,
+    station enum ('BAR','KITCHEN') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_kitchen_prep_times_bumped_at on kitchen_prep_times (bumped_at);
@@ -0,0 +1,20 @@
+-- Itens de comanda e de venda passam do IDENTITY para o gerador em tabela (@TableGenerator), que permite
+-- inserir os itens em lote. Os geradores começam em 0; IdGeneratorAlignment os leva para depois do maior id
+-- existente na inicialização.
+
+create table id_generators (
+    next_val bigint,
+    sequence_name varchar(255) not null,
+    primary key (sequence_name)
+) engine=InnoDB;
+
+insert into id_generators(sequence_name, next_val) values ('order_items',0);
+insert into id_generators(sequence_name, next_val) values ('sale_items',0);
+
+alter table order_items modify column id bigint not null;
+alter table sale_items modify column id bigint not null;
+
+-- O item é gravado já com a venda (sale_id no próprio INSERT). Itens sem venda não aparecem em nenhuma
+-- venda nem relatório e impediriam a coluna obrigatória.
+delete from sale_items where sale_id is null;
+alter table sale_items modify column sale_id varchar(255) not null;
@@ -0,0 +1,51 @@
+-- Arquivo: comandas e vendas antigas saem das tabelas quentes para cópias com a mesma estrutura
+
+create table orders_archive (
+    id varchar(255) not null,
+    total_amount float(53) not null,
+    end_time datetime(6),
+    start_time datetime(6) not null,
+    table_id bigint not null,
+    version bigint not null,
+    payment_method enum ('CASH','CREDIT','DEBIT','PIX'),
+    status enum ('CANCELED','OPEN','PAID') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table order_items_archive (
+    id bigint not null,
+    price_at_order float(53) not null,
+    quantity integer not null,
+    send_to_kitchen bit not null,
+    order_id varchar(255) not null,
+    product_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table sales_archive (
+    id varchar(255) not null,
+    total_amount float(53) not null,
+    table_id bigint not null,
+    timestamp datetime(6) not null,
+    order_id varchar(255),
+    payment_method enum ('CASH','CREDIT','DEBIT','PIX') not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table sale_items_archive (
+    id bigint not null,
+    price_at_sale float(53) not null,
+    quantity integer not null,
+    send_to_kitchen bit not null,
+    product_id varchar(255),
+    product_name varchar(255) not null,
+    sale_id varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_orders_archive_end_time on orders_archive (end_time);
+create index idx_order_items_archive_order_id on order_items_archive (order_id);
+create index idx_sales_archive_timestamp_id on sales_archive (timestamp, id);
+create index idx_sales_archive_total_amount_id on sales_archive (total_amount, id);
+
+alter table sale_items_archive add constraint FKltinfwswqgrjpm6n497mnh66u foreign key (sale_id) references sales_archive (id);
@@ -0,0 +1,12 @@
+-- Índices das consultas mais frequentes. A consulta de vendas por período (findByTimestampBetween) já usa
+-- idx_sales_timestamp_id, criado na versão 3.
+
+-- Exclusão de produto: verifica se algum item de comanda usa o produto (findByProductId). No MySQL este índice
+-- substitui o criado automaticamente para a chave estrangeira.
+create index idx_order_items_product_id on order_items (product_id);
+
+-- Comandas abertas, carregadas na inicialização pelo OpenOrderWorkingSet e pelo TableService (findByStatus)
+create index idx_orders_status on orders (status);
+
+-- Arquivamento: comandas fechadas antes do corte, em ordem de fechamento
+create index idx_orders_end_time on orders (end_time);
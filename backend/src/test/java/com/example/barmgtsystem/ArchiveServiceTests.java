@@ -0,0 +1,109 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.dto.SaleSearchCriteria;
+import com.example.barmgtsystem.dto.SalesPage;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.DayClosing;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.repository.OrderRepository;
+import com.example.barmgtsystem.repository.SaleRepository;
+import com.example.barmgtsystem.service.ArchiveService;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Arquivamento: comandas e vendas antigas saem das tabelas ativas e continuam aparecendo nos relatórios.
+// Banco próprio: o arquivo preenchido aqui mudaria a contagem de consultas dos outros testes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:archive_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class ArchiveServiceTests {
+
+	@Autowired
+	private ArchiveService archiveService;
+	@Autowired
+	private ReportService reportService;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private OrderRepository orderRepository;
+	@Autowired
+	private SaleRepository saleRepository;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void oldOrdersAndSalesMoveToArchiveAndStayInReports() throws Exception {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Bebidas"));
+		Product beer = productService.createProduct(new Product(null, "Cerveja", category, 10.0, false));
+
+		// Venda fechada agora e "envelhecida" no banco para 120 dias atrás
+		LocalDateTime old = LocalDate.now().minusDays(120).atTime(21, 0);
+		Order oldOrder = orderService.startOrder(1L);
+		orderService.addItemToOrder(oldOrder.getId(), beer.getId(), 3);
+		Sale oldSale = orderService.closeOrder(oldOrder.getId(), PaymentMethod.PIX);
+		jdbcTemplate.update("UPDATE orders SET start_time = ?, end_time = ? WHERE id = ?", old.minusHours(1), old, oldOrder.getId());
+		jdbcTemplate.update("UPDATE sales SET timestamp = ? WHERE id = ?", old, oldSale.getId());
+
+		Order recentOrder = orderService.startOrder(2L);
+		orderService.addItemToOrder(recentOrder.getId(), beer.getId(), 1);
+		Sale recentSale = orderService.closeOrder(recentOrder.getId(), PaymentMethod.CASH);
+		Order openOrder = orderService.startOrder(3L);
+
+		archiveService.archiveBefore(LocalDate.now().minusDays(90).atStartOfDay());
+
+		assertTrue(orderRepository.findById(oldOrder.getId()).isEmpty());
+		assertTrue(saleRepository.findById(oldSale.getId()).isEmpty());
+		assertTrue(orderRepository.findById(recentOrder.getId()).isPresent());
+		assertTrue(orderRepository.findById(openOrder.getId()).isPresent());
+		assertTrue(saleRepository.findById(recentSale.getId()).isPresent());
+
+		List<Sale> salesOfDay = reportService.getSalesByDate(old.toLocalDate());
+		assertEquals(1, salesOfDay.size());
+		assertEquals(3, salesOfDay.get(0).getItems().get(0).getQuantity());
+
+		// Página única com as duas tabelas, mais recente primeiro
+		SalesPage page = reportService.searchSales(new SaleSearchCriteria());
+		assertEquals(List.of(recentSale.getId(), oldSale.getId()), page.getContent().stream().map(Sale::getId).toList());
+		assertEquals("Cerveja", page.getContent().get(1).getItems().get(0).getProductName());
+
+		// Paginação por cursor atravessa do ativo para o arquivo
+		SaleSearchCriteria firstPage = new SaleSearchCriteria();
+		firstPage.setLimit(1);
+		SalesPage first = reportService.searchSales(firstPage);
+		SaleSearchCriteria secondPage = new SaleSearchCriteria();
+		secondPage.setLimit(1);
+		secondPage.setCursor(first.getNextCursor());
+		assertEquals(oldSale.getId(), reportService.searchSales(secondPage).getContent().get(0).getId());
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		reportService.exportSalesCsv(old.toLocalDate(), LocalDate.now(), csv);
+		assertEquals(3, csv.toString(StandardCharsets.UTF_8).split("\r\n").length); // Cabeçalho e as duas vendas
+
+		DayClosing closing = reportService.closeDay(old.toLocalDate());
+		assertEquals(1, closing.getSaleCount());
+		assertEquals(30.0, closing.getTotalAmount());
+
+		assertThrows(IllegalStateException.class, () -> reportService.cancelSale(oldSale.getId()));
+	}
+}
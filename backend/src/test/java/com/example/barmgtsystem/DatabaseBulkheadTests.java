@@ -0,0 +1,49 @@
+package com.example.barmgtsystem;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Fila na frente do pool (perfil "virtual"): no máximo uma conexão aberta por licença; quem passa do limite espera
+// e, depois de max-wait-ms, falha. A licença volta uma única vez, no close da conexão.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:db_bulkhead_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.datasource.hikari.maximum-pool-size=5",
+		"bar.db.bulkhead.enabled=true",
+		"bar.db.bulkhead.permits=2",
+		"bar.db.bulkhead.max-wait-ms=1000",
+		"bar.warmup.enabled=false",
+		"bar.archive.enabled=false"
+})
+class DatabaseBulkheadTests {
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Test
+	void connectionsBeyondThePermitsWaitAndThenFail() throws Exception {
+		try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+			// O pool ainda tem conexões livres, mas a fila não deixa passar a terceira
+			assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+		}
+		try (Connection third = dataSource.getConnection()) {
+			third.createStatement().execute("SELECT 1");
+		}
+	}
+
+	@Test
+	void closingTwiceReturnsThePermitOnlyOnce() throws Exception {
+		Connection connection = dataSource.getConnection();
+		connection.close();
+		connection.close();
+		try (Connection first = dataSource.getConnection(); Connection second = dataSource.getConnection()) {
+			assertThrows(SQLTransientConnectionException.class, dataSource::getConnection);
+		}
+	}
+}
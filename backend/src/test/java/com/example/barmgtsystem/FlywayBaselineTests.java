@@ -0,0 +1,90 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.repository.OrderRepository;
+import com.example.barmgtsystem.repository.SalesDailyPaymentRollupRepository;
+import com.example.barmgtsystem.service.OrderService;
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Banco criado antes das migrações (ddl-auto=update), já com vendas: o Flyway marca a versão 1 sem executá-la,
+// aplica as seguintes e o Hibernate confere as entidades contra o esquema resultante.
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + FlywayBaselineTests.URL,
+		"spring.flyway.baseline-on-migrate=true",
+		"spring.flyway.baseline-version=1"
+})
+class FlywayBaselineTests {
+
+	static final String URL = "jdbc:h2:mem:pre_flyway_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+	@Autowired
+	private Flyway flyway;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private OrderRepository orderRepository;
+	@Autowired
+	private SalesDailyPaymentRollupRepository dailyPaymentRollupRepository;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	// Roda antes da subida do contexto: o esquema da versão 1 e as linhas de um banco em produção
+	@BeforeAll
+	static void createPreFlywayDatabase() throws Exception {
+		try (Connection connection = DriverManager.getConnection(URL, "sa", "");
+			 Statement statement = connection.createStatement()) {
+			ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/migration/V1__initial_schema.sql"));
+			statement.execute("insert into product_categories (id, name) values ('cat-1', 'Bebidas')");
+			statement.execute("insert into products (id, price, send_to_kitchen, category_id, name) values ('prod-1', 10.0, false, 'cat-1', 'Cerveja')");
+			statement.execute("insert into orders (id, total_amount, start_time, end_time, table_id, payment_method, status) "
+					+ "values ('order-1', 20.0, current_timestamp, current_timestamp, 1, 'CASH', 'PAID')");
+			statement.execute("insert into order_items (price_at_order, quantity, send_to_kitchen, order_id, product_id) "
+					+ "values (10.0, 2, false, 'order-1', 'prod-1')");
+			statement.execute("insert into sales (id, total_amount, table_id, timestamp, order_id, payment_method) "
+					+ "values ('sale-1', 20.0, 1, current_timestamp, 'order-1', 'CASH')");
+			statement.execute("insert into sale_items (price_at_sale, quantity, send_to_kitchen, product_id, product_name, sale_id) "
+					+ "values (10.0, 2, false, 'prod-1', 'Cerveja', 'sale-1')");
+			// Item sem venda: não entra em relatório e sai na migração que torna sale_id obrigatório
+			statement.execute("insert into sale_items (price_at_sale, quantity, send_to_kitchen, product_id, product_name) "
+					+ "values (10.0, 1, false, 'prod-1', 'Cerveja')");
+		}
+	}
+
+	@Test
+	void preFlywayDatabaseIsBaselinedAndMigratedToLatest() {
+		MigrationInfo[] applied = flyway.info().applied();
+		assertEquals("1", applied[0].getVersion().getVersion());
+		assertTrue(applied[0].getType().isBaseline());
+		MigrationInfo[] all = flyway.info().all();
+		assertEquals(all[all.length - 1].getVersion(), flyway.info().current().getVersion());
+		assertEquals(0, flyway.info().pending().length);
+
+		// Linhas anteriores preservadas: a comanda fechada ganha a versão 0 e a venda entra nos rollups
+		assertEquals(0, orderRepository.findById("order-1").orElseThrow().getVersion());
+		assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM sale_items", Integer.class));
+		assertEquals(1, dailyPaymentRollupRepository.count());
+
+		// Novos itens recebem ids do gerador em tabela, depois dos criados pelo IDENTITY
+		Long lastIdentityId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM order_items", Long.class);
+		Order order = orderService.startOrder(3L);
+		order = orderService.addItemToOrder(order.getId(), "prod-1", 1);
+		assertTrue(order.getItems().get(0).getId() > lastIdentityId);
+		assertEquals(10.0, orderService.closeOrder(order.getId(), PaymentMethod.PIX).getTotalAmount());
+	}
+}
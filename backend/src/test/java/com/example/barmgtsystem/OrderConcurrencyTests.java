@@ -0,0 +1,234 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.enums.OrderStatus;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.repository.OrderRepository;
+import com.example.barmgtsystem.repository.RestaurantTableRepository;
+import com.example.barmgtsystem.service.KitchenDisplayService;
+import com.example.barmgtsystem.service.OrderRejectedException;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.TableService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+// Alterações simultâneas da mesma comanda: as duas leem a mesma versão e gravam seus itens antes de qualquer uma
+// gravar a comanda. Uma vence o UPDATE condicional; a outra é desfeita e repetida até bar.orders.max-attempts.
+// Um deadlock no banco é repetido da mesma forma.
+// Comandas abertas ao mesmo tempo na mesma mesa: só uma ocupa a mesa (claimTable).
+// Banco próprio: as comandas abertas aqui não interferem na contagem de consultas dos outros testes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:order_concurrency_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class OrderConcurrencyTests {
+
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private OrderRepository orderRepository;
+	@Autowired
+	private TableService tableService;
+	@Autowired
+	private MeterRegistry meterRegistry;
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+	@MockitoSpyBean
+	private KitchenDisplayService kitchenDisplay;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+
+	private Product beer;
+	private Product water;
+	private int maxAttempts;
+	private ExecutorService terminals;
+
+	@BeforeEach
+	void setUp() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + UUID.randomUUID()));
+		beer = productService.createProduct(new Product(null, "Cerveja", category, 10.0, false));
+		water = productService.createProduct(new Product(null, "Água", category, 4.0, false));
+		maxAttempts = (int) ReflectionTestUtils.getField(orderServiceTarget(), "maxAttempts");
+		terminals = Executors.newFixedThreadPool(2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		terminals.shutdownNow();
+		ReflectionTestUtils.setField(orderServiceTarget(), "maxAttempts", maxAttempts);
+	}
+
+	@Test
+	void conflictingItemAdditionsRetryAndBothApply() throws Exception {
+		Order order = orderService.startOrder(1L);
+		Map<String, AtomicInteger> attempts = holdFirstAttemptsUntilBothWroteTheirItem();
+
+		List<Future<Order>> results = addConcurrently(order.getId());
+		for (Future<Order> result : results) {
+			result.get(10, TimeUnit.SECONDS);
+		}
+
+		// Uma tentativa perdeu o UPDATE da comanda e foi repetida sobre a versão nova
+		assertEquals(3, attempts.values().stream().mapToInt(AtomicInteger::get).sum());
+		Order stored = orderRepository.findById(order.getId()).orElseThrow();
+		assertEquals(2, stored.getVersion());
+		assertEquals(14.0, stored.getTotalAmount());
+		Order open = orderService.getOrderById(order.getId()).orElseThrow();
+		assertEquals(2, open.getItems().size());
+		assertEquals(14.0, open.getTotalAmount());
+	}
+
+	@Test
+	void conflictFailsOnceAttemptsAreExhausted() throws Exception {
+		ReflectionTestUtils.setField(orderServiceTarget(), "maxAttempts", 1);
+		Order order = orderService.startOrder(2L);
+		holdFirstAttemptsUntilBothWroteTheirItem();
+
+		List<Throwable> failures = new ArrayList<>();
+		for (Future<Order> result : addConcurrently(order.getId())) {
+			try {
+				result.get(10, TimeUnit.SECONDS);
+			} catch (ExecutionException e) {
+				failures.add(e.getCause());
+			}
+		}
+
+		// Sem nova tentativa: o perdedor recebe o conflito e nada dele fica gravado
+		assertEquals(1, failures.size());
+		assertInstanceOf(OptimisticLockingFailureException.class, failures.get(0));
+		Order stored = orderRepository.findById(order.getId()).orElseThrow();
+		assertEquals(1, stored.getVersion());
+		Order open = orderService.getOrderById(order.getId()).orElseThrow();
+		assertEquals(1, open.getItems().size());
+		assertEquals(stored.getTotalAmount(), open.getTotalAmount());
+	}
+
+	@Test
+	void deadlockOnOrderWriteIsRetried() {
+		Order order = orderService.startOrder(3L);
+		// O banco escolhe esta transação como vítima de um deadlock na primeira tentativa
+		doThrow(new CannotAcquireLockException("Deadlock found when trying to get lock"))
+				.doCallRealMethod()
+				.when(kitchenDisplay).recordItemChange(any(), any(), any(), any(), anyBoolean(), anyInt());
+
+		orderService.addItemToOrder(order.getId(), beer.getId(), 1);
+
+		Order stored = orderRepository.findById(order.getId()).orElseThrow();
+		assertEquals(1, stored.getVersion());
+		assertEquals(10.0, stored.getTotalAmount());
+		assertEquals(1, orderService.getOrderById(order.getId()).orElseThrow().getItems().size());
+	}
+
+	@Test
+	void simultaneousOrdersOnSameTableHaveExactlyOneWinner() throws Exception {
+		double takenBefore = tableTakenErrors();
+		for (long tableId = 10; tableId <= 19; tableId++) {
+			long table = tableId;
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<Order>> results = new ArrayList<>();
+			for (int terminal = 0; terminal < 2; terminal++) {
+				results.add(terminals.submit(() -> {
+					start.await();
+					return orderService.startOrder(table);
+				}));
+			}
+			start.countDown();
+
+			List<Order> winners = new ArrayList<>();
+			List<Throwable> failures = new ArrayList<>();
+			for (Future<Order> result : results) {
+				try {
+					winners.add(result.get(10, TimeUnit.SECONDS));
+				} catch (ExecutionException e) {
+					failures.add(e.getCause());
+				}
+			}
+
+			assertEquals(1, winners.size());
+			assertEquals(1, failures.size());
+			OrderRejectedException rejected = assertInstanceOf(OrderRejectedException.class, failures.get(0));
+			assertEquals(OrderRejectedException.TABLE_TAKEN, rejected.getReason());
+			assertTrue(rejected.getMessage().contains("is not free"), rejected.getMessage());
+			// A comanda do perdedor foi desfeita junto com a ocupação: a mesa e o banco só conhecem a do vencedor
+			String winnerId = winners.get(0).getId();
+			assertEquals(winnerId, tableService.getTableById(table).orElseThrow().getOrderId());
+			assertEquals(winnerId, tableRepository.findById(table).orElseThrow().getOrderId());
+			assertEquals(List.of(winnerId), orderRepository.findByStatus(OrderStatus.OPEN).stream()
+					.filter(order -> order.getTableId() == table)
+					.map(Order::getId)
+					.toList());
+		}
+		// Cada perdedor contado com o motivo da recusa
+		assertEquals(takenBefore + 10, tableTakenErrors());
+	}
+
+	private double tableTakenErrors() {
+		Counter counter = meterRegistry.find("bar.orders.errors")
+				.tags("operation", "start", "cause", OrderRejectedException.TABLE_TAKEN)
+				.counter();
+		return counter == null ? 0 : counter.count();
+	}
+
+	// A primeira tentativa de cada terminal espera, depois de gravar o item, até a do outro chegar ao mesmo ponto:
+	// as duas partem da mesma versão da comanda. Devolve as tentativas por produto.
+	private Map<String, AtomicInteger> holdFirstAttemptsUntilBothWroteTheirItem() {
+		CountDownLatch bothWroteItem = new CountDownLatch(2);
+		Set<String> held = ConcurrentHashMap.newKeySet();
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+		doAnswer(invocation -> {
+			String productId = invocation.getArgument(2);
+			attempts.computeIfAbsent(productId, id -> new AtomicInteger()).incrementAndGet();
+			if (held.add(productId)) {
+				bothWroteItem.countDown();
+				assertTrue(bothWroteItem.await(5, TimeUnit.SECONDS));
+			}
+			return invocation.callRealMethod();
+		}).when(kitchenDisplay).recordItemChange(any(), any(), any(), any(), anyBoolean(), anyInt());
+		return attempts;
+	}
+
+	private Object orderServiceTarget() {
+		return AopTestUtils.getTargetObject(orderService);
+	}
+
+	private List<Future<Order>> addConcurrently(String orderId) {
+		return List.of(
+				terminals.submit(() -> orderService.addItemToOrder(orderId, beer.getId(), 1)),
+				terminals.submit(() -> orderService.addItemToOrder(orderId, water.getId(), 1)));
+	}
+}
@@ -0,0 +1,236 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.dto.PrinterStatus;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.PrintSpoolerService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Spooler de impressão contra impressoras de mentira (ServerSocket local no lugar da porta 9100)
+@SpringBootTest
+class PrintSpoolerTests {
+
+	private static final long COALESCE_WINDOW_MS = 500;
+
+	private static final StandInPrinter kitchenPrinter = StandInPrinter.start();
+	private static final StandInPrinter receiptPrinter = StandInPrinter.start();
+
+	@DynamicPropertySource
+	static void printerProperties(DynamicPropertyRegistry registry) {
+		// Banco próprio: este contexto tem outra configuração e não pode recriar o esquema dos outros testes
+		registry.add("spring.datasource.url", () -> "jdbc:h2:mem:print_spooler_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+		registry.add("bar.printing.kitchen.host", () -> "127.0.0.1");
+		registry.add("bar.printing.kitchen.port", () -> kitchenPrinter.port);
+		registry.add("bar.printing.receipt.host", () -> "127.0.0.1");
+		registry.add("bar.printing.receipt.port", () -> receiptPrinter.port);
+		registry.add("bar.printing.coalesce-window-ms", () -> COALESCE_WINDOW_MS);
+		registry.add("bar.printing.receipt.header", () -> "Boteco da Esquina");
+		// Fila mínima e tentativas rápidas: a impressora desligada enche a fila logo e volta a receber logo
+		registry.add("bar.printing.queue-capacity", () -> 1);
+		registry.add("bar.printing.max-attempts", () -> 100);
+		registry.add("bar.printing.retry-backoff-ms", () -> 50);
+	}
+
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private PrintSpoolerService printSpooler;
+
+	private Product beer;
+	private Product fries;
+
+	@BeforeEach
+	void setUp() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + UUID.randomUUID()));
+		beer = productService.createProduct(new Product(null, "Cerveja", category, 10.5, false));
+		fries = productService.createProduct(new Product(null, "Batata", category, 20.0, true));
+	}
+
+	@AfterAll
+	static void stopPrinters() throws IOException {
+		kitchenPrinter.goOffline();
+		receiptPrinter.goOffline();
+	}
+
+	@Test
+	void rapidKitchenAdditionsPrintOneTicket() throws Exception {
+		Order order = orderService.startOrder(4L);
+		orderService.addItemToOrder(order.getId(), fries.getId(), 1);
+		orderService.addItemToOrder(order.getId(), fries.getId(), 2);
+		orderService.addItemToOrder(order.getId(), beer.getId(), 1);
+
+		String ticket = kitchenPrinter.nextTicket(5000);
+		assertNotNull(ticket);
+		assertTrue(ticket.contains("MESA 4"));
+		assertTrue(ticket.contains("3x Batata"));
+		assertFalse(ticket.contains("Cerveja")); // Item que não vai para a cozinha
+		assertTrue(ticket.endsWith("\u001dV\u0001")); // Corte do papel
+		assertNull(kitchenPrinter.nextTicket(2 * COALESCE_WINDOW_MS));
+	}
+
+	@Test
+	void additionUndoneWithinWindowPrintsNothing() throws Exception {
+		Order order = orderService.startOrder(5L);
+		Order updated = orderService.addItemToOrder(order.getId(), fries.getId(), 1);
+		orderService.removeItemFromOrder(order.getId(), updated.getItems().get(0).getId());
+
+		assertNull(kitchenPrinter.nextTicket(3 * COALESCE_WINDOW_MS));
+	}
+
+	@Test
+	void orderCanceledWithinWindowPrintsNothing() throws Exception {
+		Order order = orderService.startOrder(10L);
+		orderService.addItemToOrder(order.getId(), fries.getId(), 2);
+		orderService.cancelOrder(order.getId());
+
+		assertNull(kitchenPrinter.nextTicket(3 * COALESCE_WINDOW_MS));
+	}
+
+	@Test
+	void orderCanceledAfterItsTicketPrintsCancellation() throws Exception {
+		Order order = orderService.startOrder(11L);
+		orderService.addItemToOrder(order.getId(), fries.getId(), 1);
+		assertNotNull(kitchenPrinter.nextTicket(5000));
+
+		orderService.cancelOrder(order.getId());
+
+		String cancellation = kitchenPrinter.nextTicket(5000);
+		assertNotNull(cancellation);
+		assertTrue(cancellation.contains("MESA 11"));
+		assertTrue(cancellation.contains("COMANDA CANCELADA"));
+		assertNull(kitchenPrinter.nextTicket(2 * COALESCE_WINDOW_MS));
+	}
+
+	@Test
+	void closingAnOrderPrintsReceipt() throws Exception {
+		Order order = orderService.startOrder(6L);
+		orderService.addItemToOrder(order.getId(), beer.getId(), 2);
+		orderService.closeOrder(order.getId(), PaymentMethod.CASH);
+
+		String receipt = receiptPrinter.nextTicket(5000);
+		assertNotNull(receipt);
+		assertTrue(receipt.startsWith("\u001b@")); // Reinicia a impressora
+		assertTrue(receipt.contains("Boteco da Esquina"));
+		assertTrue(receipt.contains("2x Cerveja"));
+		assertTrue(receipt.contains("R$ 21,00"));
+		assertTrue(receipt.contains("Dinheiro"));
+		assertEquals(1, receipt.split("TOTAL", -1).length - 1);
+	}
+
+	@Test
+	void ticketsArrivingWhileQueueIsFullPrintOnceThePrinterIsBack() throws Exception {
+		kitchenPrinter.goOffline();
+		try {
+			// Um ticket preso nas tentativas, um na fila (capacidade 1) e um excedente
+			for (long tableId = 7; tableId <= 9; tableId++) {
+				Order order = orderService.startOrder(tableId);
+				orderService.addItemToOrder(order.getId(), fries.getId(), 1);
+				Thread.sleep(COALESCE_WINDOW_MS + 200); // Um ticket por mesa
+			}
+			PrinterStatus kitchen = printSpooler.getPrinterStatuses().get(0);
+			assertEquals(1, kitchen.getQueued());
+			assertEquals(1, kitchen.getOverflow());
+		} finally {
+			kitchenPrinter.goOnline();
+		}
+
+		// Nenhum descartado, na ordem em que foram pedidos
+		for (long tableId = 7; tableId <= 9; tableId++) {
+			String ticket = kitchenPrinter.nextTicket(10_000);
+			assertNotNull(ticket);
+			assertTrue(ticket.contains("MESA " + tableId), ticket);
+		}
+		assertEquals(0, printSpooler.getPrinterStatuses().get(0).getOverflow());
+	}
+
+	// Impressora de mentira: uma conexão por ticket, guardando os bytes recebidos até o fechamento.
+	// Desligada, a porta recusa conexões; religada, volta a ouvir na mesma porta.
+	private static final class StandInPrinter {
+		private final int port;
+		private final BlockingQueue<byte[]> tickets = new LinkedBlockingQueue<>();
+		private volatile ServerSocket server;
+
+		private StandInPrinter(ServerSocket server) {
+			this.server = server;
+			this.port = server.getLocalPort();
+		}
+
+		static StandInPrinter start() {
+			try {
+				StandInPrinter printer = new StandInPrinter(new ServerSocket(0, 50, InetAddress.getLoopbackAddress()));
+				printer.listen();
+				return printer;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		void goOffline() throws IOException {
+			server.close();
+		}
+
+		void goOnline() throws IOException {
+			ServerSocket reopened = new ServerSocket();
+			reopened.setReuseAddress(true);
+			reopened.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 50);
+			server = reopened;
+			listen();
+		}
+
+		private void listen() {
+			ServerSocket listening = server;
+			Thread acceptor = new Thread(() -> acceptLoop(listening), "stand-in-printer");
+			acceptor.setDaemon(true);
+			acceptor.start();
+		}
+
+		private void acceptLoop(ServerSocket server) {
+			while (!server.isClosed()) {
+				try (Socket connection = server.accept()) {
+					tickets.add(connection.getInputStream().readAllBytes());
+				} catch (IOException e) {
+					return;
+				}
+			}
+		}
+
+		// Próximo ticket decodificado na página de código da impressora, ou null se nada chegar no prazo
+		String nextTicket(long timeoutMs) throws InterruptedException {
+			byte[] ticket = tickets.poll(timeoutMs, TimeUnit.MILLISECONDS);
+			return ticket == null ? null : new String(ticket, Charset.forName("IBM850"));
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.config.SqlStatistics;
+import org.junit.jupiter.api.function.Executable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Orçamento de consultas nos testes: executa a ação (chamada de serviço ou requisição pelo MockMvc, na mesma
+// thread) e confere os comandos SQL que ela enviou ao banco, contados pelo DataSource instrumentado.
+final class QueryBudget {
+
+	private QueryBudget() {
+	}
+
+	// Exatamente este número de comandos
+	static SqlStatistics.Scope assertStatements(int expected, Executable action) throws Throwable {
+		SqlStatistics.Scope scope = run(action);
+		assertEquals(expected, scope.getStatements(), () -> "SQL statements " + scope.getRepeatedStatements(1));
+		return scope;
+	}
+
+	// No máximo este número de comandos, e nenhum comando repetido (N+1)
+	static SqlStatistics.Scope assertAtMost(int max, Executable action) throws Throwable {
+		SqlStatistics.Scope scope = run(action);
+		assertTrue(scope.getStatements() <= max,
+				() -> scope.getStatements() + " SQL statements, budget " + max + ": " + scope.getRepeatedStatements(1));
+		assertTrue(scope.getRepeatedStatements(2).isEmpty(), () -> "Repeated SQL statements " + scope.getRepeatedStatements(2));
+		return scope;
+	}
+
+	private static SqlStatistics.Scope run(Executable action) throws Throwable {
+		try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+			action.execute();
+			return scope;
+		}
+	}
+}
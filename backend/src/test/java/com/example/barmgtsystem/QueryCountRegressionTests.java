@@ -0,0 +1,177 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.config.SqlStatistics;
+import com.example.barmgtsystem.enums.OrderStatus;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.OrderItem;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.repository.OrderItemRepository;
+import com.example.barmgtsystem.repository.OrderRepository;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.TableService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Garante que as leituras de vendas e comandas usam um número fixo de consultas,
+// independente de quantas vendas/itens existem (regressão de N+1).
+@SpringBootTest
+@AutoConfigureMockMvc
+class QueryCountRegressionTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private OrderRepository orderRepository;
+	@Autowired
+	private OrderItemRepository orderItemRepository;
+	@Autowired
+	private TableService tableService;
+
+	private Product beer;
+	private Product fries;
+
+	@BeforeEach
+	void setUp() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + UUID.randomUUID()));
+		beer = productService.createProduct(new Product(null, "Cerveja", category, 10.5, false));
+		fries = productService.createProduct(new Product(null, "Batata", category, 20.0, true));
+	}
+
+	@Test
+	void salesByDateLoadsItemsInOneQuery() throws Throwable {
+		closeOrdersWithTwoItems(11, 5);
+
+		QueryBudget.assertStatements(1, () ->
+				mockMvc.perform(get("/api/reports/sales/by-date").param("date", LocalDate.now().toString()))
+						.andExpect(status().isOk())
+						.andExpect(jsonPath("$[0].items[1].productName").exists()));
+	}
+
+	@Test
+	void salesPageUsesTwoQueriesRegardlessOfPageSize() throws Throwable {
+		closeOrdersWithTwoItems(16, 5);
+
+		// Uma consulta para a página e uma para os itens de todas as vendas da página
+		QueryBudget.assertStatements(2, () ->
+				mockMvc.perform(get("/api/reports/sales").param("limit", "4"))
+						.andExpect(status().isOk())
+						.andExpect(jsonPath("$.content.length()").value(4))
+						.andExpect(jsonPath("$.content[3].items[1].productName").exists()));
+	}
+
+	@Test
+	void activeOrderLoadsItemsAndProductsInOneQuery() throws Throwable {
+		// Comanda gravada direto no banco, fora do conjunto em memória (como após reiniciar o backend)
+		Order order = orderRepository.save(new Order(null, 2L, new ArrayList<>(), 41.0,
+				LocalDateTime.now(), null, OrderStatus.OPEN, null, 0L));
+		orderItemRepository.save(new OrderItem(null, order, beer, 2, beer.getPrice(), false));
+		orderItemRepository.save(new OrderItem(null, order, fries, 1, fries.getPrice(), true));
+		tableService.occupyTable(2L, order.getId(), order.getStartTime());
+
+		QueryBudget.assertStatements(1, () ->
+				mockMvc.perform(get("/api/orders/2/active"))
+						.andExpect(status().isOk())
+						.andExpect(jsonPath("$.items.length()").value(2))
+						.andExpect(jsonPath("$.items[1].product.name").exists()));
+	}
+
+	@Test
+	void closedOrderLoadsItemsAndProductsWithFixedQueries() {
+		Order order = orderService.startOrder(3L);
+		orderService.addItemToOrder(order.getId(), beer.getId(), 1);
+		orderService.addItemToOrder(order.getId(), fries.getId(), 2);
+		orderService.closeOrder(order.getId(), PaymentMethod.CASH);
+
+		try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+			Order closed = orderService.getOrderById(order.getId()).orElseThrow();
+			closed.getItems().forEach(item -> item.getProduct().getName());
+
+			assertEquals(2, closed.getItems().size());
+			// Uma consulta confirmando que não está mais aberta e uma com itens e produtos
+			assertEquals(2, scope.getStatements());
+		}
+	}
+
+	@Test
+	void closingThirtyItemOrderBatchesInserts() throws Throwable {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + UUID.randomUUID()));
+		Order order = orderService.startOrder(4L);
+		for (int i = 1; i <= 30; i++) {
+			Product product = productService.createProduct(new Product(null, "Produto " + i, category, i, i % 2 == 0));
+			orderService.addItemToOrder(order.getId(), product.getId(), 1);
+		}
+
+		// Baixa da comanda (versão e status num UPDATE), venda, itens em um lote, dois rollups, mesa e, quando a
+		// faixa de ids reservada acaba, a reserva da próxima (SELECT FOR UPDATE e UPDATE em id_generators)
+		QueryBudget.assertAtMost(8, () -> orderService.closeOrder(order.getId(), PaymentMethod.CASH));
+	}
+
+	@Test
+	void changingItemQuantityWritesItemAndOrderOnce() throws Throwable {
+		Order order = orderService.startOrder(5L);
+		Long itemId = orderService.addItemToOrder(order.getId(), beer.getId(), 1).getItems().get(0).getId();
+
+		// Comanda e produto vêm da memória: o UPDATE do item e um único UPDATE da comanda (versão e total)
+		QueryBudget.assertStatements(2, () -> orderService.updateOrderItemQuantity(order.getId(), itemId, 3));
+		QueryBudget.assertStatements(2, () -> orderService.addItemToOrder(order.getId(), beer.getId(), 1));
+
+		Order stored = orderRepository.findById(order.getId()).orElseThrow();
+		assertEquals(3, stored.getVersion());
+		assertEquals(42.0, stored.getTotalAmount());
+		orderService.cancelOrder(order.getId());
+	}
+
+	@Test
+	void repeatedStatementIsReportedAsNPlusOne() {
+		List<String> orderIds = new ArrayList<>();
+		for (long tableId = 6; tableId < 11; tableId++) {
+			orderIds.add(orderService.startOrder(tableId).getId());
+		}
+
+		// Uma consulta por comanda em vez de uma para todas
+		try (SqlStatistics.Scope scope = SqlStatistics.open()) {
+			orderIds.forEach(orderRepository::findById);
+
+			Map<String, Integer> repeated = scope.getRepeatedStatements(5);
+			assertEquals(1, repeated.size());
+			assertEquals(5, repeated.values().iterator().next());
+			assertEquals(5, scope.getRows());
+		}
+	}
+
+	// Abre e fecha uma comanda por mesa, a partir de firstTableId, cada uma com dois produtos
+	private void closeOrdersWithTwoItems(int firstTableId, int count) {
+		for (long tableId = firstTableId; tableId < firstTableId + count; tableId++) {
+			Order order = orderService.startOrder(tableId);
+			orderService.addItemToOrder(order.getId(), beer.getId(), 2);
+			orderService.addItemToOrder(order.getId(), fries.getId(), 1);
+			orderService.closeOrder(order.getId(), PaymentMethod.PIX);
+		}
+	}
+}
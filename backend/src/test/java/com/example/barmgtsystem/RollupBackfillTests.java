@@ -0,0 +1,71 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.repository.SalesDailyPaymentRollupRepository;
+import com.example.barmgtsystem.repository.SalesHourlyProductRollupRepository;
+import com.example.barmgtsystem.repository.SalesRollupWriter;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.ReportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+// Preenchimento dos rollups na subida: uma falha no meio não deixa rollups parciais, e a próxima tentativa refaz tudo.
+// Banco próprio: os rollups apagados aqui não interferem nos relatórios dos outros testes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollup_backfill_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class RollupBackfillTests {
+
+	@Autowired
+	private ReportService reportService;
+	@MockitoSpyBean
+	private SalesRollupWriter rollupWriter;
+	@Autowired
+	private SalesDailyPaymentRollupRepository dailyPaymentRollupRepository;
+	@Autowired
+	private SalesHourlyProductRollupRepository hourlyProductRollupRepository;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void backfillFailingHalfwayLeavesRollupsEmptyAndRunsAgain() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Bebidas"));
+		Product beer = productService.createProduct(new Product(null, "Cerveja", category, 10.0, false));
+		Order order = orderService.startOrder(1L);
+		orderService.addItemToOrder(order.getId(), beer.getId(), 2);
+		orderService.closeOrder(order.getId(), PaymentMethod.CASH);
+
+		// Vendas de antes dos rollups
+		jdbcTemplate.update("DELETE FROM sales_hourly_product_rollups");
+		jdbcTemplate.update("DELETE FROM sales_daily_payment_rollups");
+
+		// Os rollups por produto já foram gravados quando os por pagamento falham
+		doThrow(new RuntimeException("connection lost")).when(rollupWriter).applyDailyPaymentDeltas(anyList());
+		assertThrows(RuntimeException.class, reportService::backfillRollupsIfEmpty);
+		assertEquals(0, hourlyProductRollupRepository.count());
+		assertEquals(0, dailyPaymentRollupRepository.count());
+
+		doCallRealMethod().when(rollupWriter).applyDailyPaymentDeltas(anyList());
+		reportService.backfillRollupsIfEmpty();
+		assertEquals(1, hourlyProductRollupRepository.count());
+		assertEquals(1, dailyPaymentRollupRepository.count());
+	}
+}
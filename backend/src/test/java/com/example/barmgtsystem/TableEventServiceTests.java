@@ -0,0 +1,112 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.service.TableEventService;
+import com.example.barmgtsystem.service.TableService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Stream de mesas: o snapshot de um terminal que assina enquanto outra mesa muda é seguido da mudança,
+// e uma mudança desfeita por rollback nunca chega aos terminais.
+// Banco próprio: a mesa ocupada aqui não interfere nos outros testes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:table_events_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class TableEventServiceTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+	@Autowired
+	private TableEventService tableEventService;
+	@Autowired
+	private TableService tableService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Test
+	void tableChangedWhileTerminalSubscribesReachesItAfterTheSnapshot() throws Exception {
+		// Um terminal anterior prende o dispatcher enquanto seu snapshot é lido
+		CountDownLatch snapshotReading = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		SseEmitter earlier = tableEventService.subscribe(() -> {
+			snapshotReading.countDown();
+			awaitQuietly(release);
+			return List.of();
+		});
+		MockHttpServletResponse response;
+		try {
+			assertTrue(snapshotReading.await(5, TimeUnit.SECONDS));
+
+			// O novo terminal assina e, antes que seu snapshot seja enviado, a mesa 5 é ocupada
+			response = mockMvc.perform(get("/api/tables/stream"))
+					.andExpect(request().asyncStarted())
+					.andReturn().getResponse();
+			transactionTemplate.executeWithoutResult(status ->
+					tableService.occupyTable(5L, "order-stream", LocalDateTime.now()));
+		} finally {
+			release.countDown();
+		}
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!response.getContentAsString().contains("event:table") && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		String stream = response.getContentAsString();
+		int snapshot = stream.indexOf("event:snapshot");
+		int delta = stream.indexOf("event:table");
+		assertTrue(snapshot >= 0, stream);
+		assertTrue(delta > snapshot, stream);
+		// O snapshot é lido na vez dele no dispatcher, não na thread da requisição: já mostra a mesa ocupada
+		assertTrue(stream.substring(snapshot, delta).contains("\"orderId\":\"order-stream\""), stream);
+		assertTrue(stream.substring(delta).contains("\"orderId\":\"order-stream\""), stream);
+
+		earlier.complete();
+	}
+
+	@Test
+	void tableChangeRolledBackNeverReachesTerminals() throws Exception {
+		MockHttpServletResponse response = mockMvc.perform(get("/api/tables/stream"))
+				.andExpect(request().asyncStarted())
+				.andReturn().getResponse();
+
+		transactionTemplate.executeWithoutResult(status -> {
+			tableService.occupyTable(6L, "order-rolled-back", LocalDateTime.now());
+			status.setRollbackOnly();
+		});
+		transactionTemplate.executeWithoutResult(status ->
+				tableService.occupyTable(7L, "order-committed", LocalDateTime.now()));
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!response.getContentAsString().contains("order-committed") && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		// Eventos saem em ordem pelo dispatcher: quando a mesa 7 chegou, a mesa 6 já teria chegado
+		String stream = response.getContentAsString();
+		assertTrue(stream.contains("\"orderId\":\"order-committed\""), stream);
+		assertFalse(stream.contains("order-rolled-back"), stream);
+		assertNull(tableService.getTableById(6L).orElseThrow().getOrderId());
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.enums.TableStatus;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.TableService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Estado em memória e transações: o registro das mesas só recebe o que foi confirmado no banco, e o que a
+// transação desfeita mudou nas comandas volta ao estado confirmado.
+// Banco próprio: as mesas e comandas daqui não interferem na contagem de consultas dos outros testes.
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:rollback_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class TransactionRollbackTests {
+
+	@Autowired
+	private TableService tableService;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+
+	@Test
+	void tableOccupiedAndReleasedInRolledBackTransactionStaysFree() {
+		transactionTemplate.executeWithoutResult(status -> {
+			tableService.occupyTable(1L, "rolled-back-order", LocalDateTime.now());
+			tableService.releaseTable(1L, "rolled-back-order");
+			status.setRollbackOnly();
+		});
+
+		assertEquals(TableStatus.FREE, tableService.getTableById(1L).orElseThrow().getStatus());
+		assertNull(tableService.getTableById(1L).orElseThrow().getOrderId());
+	}
+
+	@Test
+	void tableOccupiedInOpenTransactionIsNotVisibleBeforeCommit() {
+		transactionTemplate.executeWithoutResult(status -> {
+			tableService.occupyTable(3L, "uncommitted-order", LocalDateTime.now());
+			// Outro terminal lendo agora não vê a ocupação que ainda pode ser desfeita
+			assertEquals(TableStatus.FREE, tableService.getTableById(3L).orElseThrow().getStatus());
+			assertTrue(tableService.getAllTables().stream().noneMatch(table -> "uncommitted-order".equals(table.getOrderId())));
+		});
+
+		assertEquals(TableStatus.OCCUPIED, tableService.getTableById(3L).orElseThrow().getStatus());
+		assertEquals("uncommitted-order", tableService.getTableById(3L).orElseThrow().getOrderId());
+		tableService.releaseTable(3L, "uncommitted-order");
+	}
+
+	@Test
+	void orderCreatedAndChangedInRolledBackTransactionLeavesNoOpenOrder() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Bebidas"));
+		Product beer = productService.createProduct(new Product(null, "Cerveja", category, 10.0, false));
+
+		// Alterar a comanda recém-aberta na mesma transação a carrega do banco para o conjunto de comandas abertas
+		Order rolledBack = transactionTemplate.execute(status -> {
+			Order order = orderService.startOrder(2L);
+			orderService.addItemToOrder(order.getId(), beer.getId(), 1);
+			status.setRollbackOnly();
+			return order;
+		});
+
+		assertTrue(orderService.getOrderById(rolledBack.getId()).isEmpty());
+		assertTrue(orderService.getOrderByTableId(2L).isEmpty());
+	}
+}
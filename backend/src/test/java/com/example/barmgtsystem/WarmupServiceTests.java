@@ -0,0 +1,166 @@
+package com.example.barmgtsystem;
+
+import com.example.barmgtsystem.config.WarmupHealthIndicator;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.enums.TableStatus;
+import com.example.barmgtsystem.enums.WarmupState;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.repository.OrderRepository;
+import com.example.barmgtsystem.repository.RestaurantTableRepository;
+import com.example.barmgtsystem.repository.SaleRepository;
+import com.example.barmgtsystem.repository.SalesDailyPaymentRollupRepository;
+import com.example.barmgtsystem.service.CatalogService;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.TableService;
+import com.example.barmgtsystem.service.WarmupService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+// Aquecimento: os caminhos quentes rodam numa transação desfeita, numa mesa fora do salão, sem deixar comandas,
+// vendas, rollups ou mesas ocupadas. A readiness recusa tráfego durante ele e depois mostra o resultado:
+// UP quando o p99 estabiliza, DEGRADED no limite de tempo e OUT_OF_SERVICE se um caminho falha.
+// Banco próprio, com o aquecimento ligado na subida.
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:warmup_test;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"bar.warmup.enabled=true",
+		"bar.warmup.iterations-per-round=20",
+		"bar.warmup.max-seconds=5"
+})
+class WarmupServiceTests {
+
+	@Autowired
+	private WarmupService warmupService;
+	@Autowired
+	private ApplicationAvailability availability;
+	@Autowired
+	private HealthEndpoint healthEndpoint;
+	@MockitoSpyBean
+	private CatalogService catalogService;
+	@Autowired
+	private OrderService orderService;
+	@Autowired
+	private TableService tableService;
+	@Autowired
+	private OrderRepository orderRepository;
+	@Autowired
+	private RestaurantTableRepository tableRepository;
+	@Autowired
+	private SaleRepository saleRepository;
+	@Autowired
+	private SalesDailyPaymentRollupRepository dailyPaymentRollupRepository;
+	@Autowired
+	private ProductCategoryService categoryService;
+	@Autowired
+	private ProductService productService;
+
+	private Product beer;
+	private int p99TolerancePercent;
+	private int stableRounds;
+	private long maxSeconds;
+
+	@BeforeEach
+	void setUp() {
+		ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + UUID.randomUUID()));
+		beer = productService.createProduct(new Product(null, "Cerveja", category, 10.0, false));
+		productService.createProduct(new Product(null, "Porção", category, 30.0, true));
+		p99TolerancePercent = (int) ReflectionTestUtils.getField(warmupService, "p99TolerancePercent");
+		stableRounds = (int) ReflectionTestUtils.getField(warmupService, "stableRounds");
+		maxSeconds = (long) ReflectionTestUtils.getField(warmupService, "maxSeconds");
+	}
+
+	@AfterEach
+	void restoreSettings() {
+		ReflectionTestUtils.setField(warmupService, "p99TolerancePercent", p99TolerancePercent);
+		ReflectionTestUtils.setField(warmupService, "stableRounds", stableRounds);
+		ReflectionTestUtils.setField(warmupService, "maxSeconds", maxSeconds);
+	}
+
+	@Test
+	void warmUpRefusesTrafficWhileRunningAndLeavesNoTrace() {
+		assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+		// Qualquer variação do p99 conta como estável: termina após stable-rounds rodadas
+		ReflectionTestUtils.setField(warmupService, "p99TolerancePercent", 1_000_000);
+
+		// Lidos a cada iteração, no meio do aquecimento
+		List<Status> readinessDuringWarmUp = new CopyOnWriteArrayList<>();
+		List<Boolean> hallFreeDuringWarmUp = new CopyOnWriteArrayList<>();
+		doAnswer(invocation -> {
+			readinessDuringWarmUp.add(readiness());
+			hallFreeDuringWarmUp.add(tableService.getAllTables().stream().allMatch(table -> table.getStatus() == TableStatus.FREE));
+			return invocation.callRealMethod();
+		}).when(catalogService).getSnapshot();
+
+		assertEquals(WarmupState.STABLE, warmupService.warmUp());
+
+		assertFalse(readinessDuringWarmUp.isEmpty());
+		assertTrue(readinessDuringWarmUp.stream().allMatch(Status.OUT_OF_SERVICE::equals));
+		assertTrue(hallFreeDuringWarmUp.stream().allMatch(Boolean::booleanValue));
+		assertEquals(Status.UP, readiness());
+
+		assertEquals(0, orderRepository.count());
+		assertEquals(0, saleRepository.count());
+		assertEquals(0, dailyPaymentRollupRepository.count());
+		assertTrue(tableService.getAllTables().stream().allMatch(table -> table.getStatus() == TableStatus.FREE));
+		// A mesa do aquecimento não fica no banco nem no registro
+		assertTrue(tableRepository.findById(TableService.WARMUP_TABLE_ID).isEmpty());
+		assertTrue(tableService.getTableById(TableService.WARMUP_TABLE_ID).isEmpty());
+
+		// As mesas do salão continuam disponíveis para uma comanda de verdade
+		Order order = orderService.startOrder(20L);
+		orderService.addItemToOrder(order.getId(), beer.getId(), 2);
+		assertEquals(20.0, orderService.closeOrder(order.getId(), PaymentMethod.CASH).getTotalAmount());
+		assertEquals(1, saleRepository.count());
+	}
+
+	@Test
+	void warmUpStoppedAtTimeLimitLeavesReadinessDegraded() {
+		// O p99 nunca fica estável por rodadas suficientes: para no limite de tempo
+		ReflectionTestUtils.setField(warmupService, "stableRounds", Integer.MAX_VALUE);
+		ReflectionTestUtils.setField(warmupService, "maxSeconds", 1L);
+
+		assertEquals(WarmupState.UNSTABLE, warmupService.warmUp());
+
+		// Aceita tráfego (200), mas distinto de UP
+		assertEquals(WarmupHealthIndicator.DEGRADED, readiness());
+		assertFalse(warmupService.getLastP99().isEmpty());
+	}
+
+	@Test
+	void warmUpFailureKeepsReadinessOutOfService() {
+		long ordersBefore = orderRepository.count();
+		doThrow(new RuntimeException("catalog unavailable")).when(catalogService).getSnapshot();
+
+		assertEquals(WarmupState.FAILED, warmupService.warmUp());
+
+		assertEquals(Status.OUT_OF_SERVICE, readiness());
+		assertEquals(ordersBefore, orderRepository.count());
+		assertTrue(tableService.getAllTables().stream().allMatch(table -> table.getStatus() == TableStatus.FREE));
+	}
+
+	private Status readiness() {
+		return healthEndpoint.healthForPath("readiness").getStatus();
+	}
+}
@@ -0,0 +1,174 @@
+package com.example.barmgtsystem.benchmarks;
+
+import com.example.barmgtsystem.BarManagementBackendApplication;
+import com.example.barmgtsystem.dto.KitchenDisplayTicket;
+import com.example.barmgtsystem.enums.KitchenStation;
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.enums.TableStatus;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.ProductCategory;
+import com.example.barmgtsystem.model.RestaurantTable;
+import com.example.barmgtsystem.repository.IdGeneratorAlignment;
+import com.example.barmgtsystem.repository.RestaurantTableRepository;
+import com.example.barmgtsystem.service.KitchenDisplayService;
+import com.example.barmgtsystem.service.ProductCategoryService;
+import com.example.barmgtsystem.service.ProductService;
+import com.example.barmgtsystem.service.ReportService;
+import com.example.barmgtsystem.service.TableService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+// Backend completo (serviços, repositórios, Hibernate) sobre um H2 em memória, com o tamanho de um bar de verdade:
+// mesas, cardápio e histórico de vendas. Um contexto por trial do JMH, cada um com o seu banco.
+public class BenchmarkContext implements AutoCloseable {
+
+    // Movimento de um dia: históricos maiores cobrem mais dias, não dias mais cheios
+    static final int SALES_PER_DAY = 275;
+    static final int CATEGORIES = 6;
+    static final int PRODUCTS_PER_CATEGORY = 8;
+
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private final ConfigurableApplicationContext context;
+    private final List<Product> products = new ArrayList<>();
+    private final List<Long> tableIds = new ArrayList<>();
+    private int historyDays;
+
+    private BenchmarkContext(ConfigurableApplicationContext context) {
+        this.context = context;
+    }
+
+    // Sobe o backend com o número de mesas e de vendas históricas pedido; args sobrescrevem propriedades
+    // (ex.: --spring.main.web-application-type=servlet para atender HTTP)
+    public static BenchmarkContext start(int tables, int sales, String... args) {
+        String database = "bench_" + UUID.randomUUID().toString().replace("-", "");
+        List<String> arguments = new ArrayList<>(List.of(args));
+        arguments.add("--spring.datasource.url=jdbc:h2:mem:" + database + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(BarManagementBackendApplication.class)
+                .profiles("benchmark")
+                .run(arguments.toArray(new String[0]));
+
+        BenchmarkContext bench = new BenchmarkContext(context);
+        bench.createTables(tables);
+        bench.createProducts();
+        bench.seedSales(sales);
+        return bench;
+    }
+
+    // Porta do servidor web (só quando iniciado com servidor, ex.: --server.port=0)
+    public int getLocalPort() {
+        return context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public List<Product> getProducts() {
+        return products;
+    }
+
+    public List<Long> getTableIds() {
+        return tableIds;
+    }
+
+    // Primeiro dia com vendas; o histórico vai até ontem
+    public LocalDate getFirstSalesDay() {
+        return LocalDate.now().minusDays(historyDays);
+    }
+
+    public int getHistoryDays() {
+        return historyDays;
+    }
+
+    // Tira da tela de preparo tudo que os benchmarks acumularam, como a cozinha faria ao longo da noite
+    public void bumpKitchenTickets() {
+        KitchenDisplayService kitchenDisplay = getBean(KitchenDisplayService.class);
+        for (KitchenStation station : KitchenStation.values()) {
+            for (KitchenDisplayTicket ticket : kitchenDisplay.getBoard(station)) {
+                kitchenDisplay.bump(ticket.getId());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    // O runner da aplicação já criou as mesas iniciais; completa até o número pedido
+    private void createTables(int tables) {
+        RestaurantTableRepository tableRepository = getBean(RestaurantTableRepository.class);
+        for (long existing = tableRepository.count(); existing < tables; existing++) {
+            tableRepository.save(new RestaurantTable(null, TableStatus.FREE, null, null));
+        }
+        TableService tableService = getBean(TableService.class);
+        tableService.loadRegistry();
+        for (RestaurantTable table : tableService.getAllTables()) {
+            tableIds.add(table.getId());
+        }
+        tableIds.sort(null);
+        tableIds.subList(tables, tableIds.size()).clear();
+    }
+
+    private void createProducts() {
+        ProductCategoryService categoryService = getBean(ProductCategoryService.class);
+        ProductService productService = getBean(ProductService.class);
+        for (int c = 1; c <= CATEGORIES; c++) {
+            ProductCategory category = categoryService.createCategory(new ProductCategory(null, "Categoria " + c));
+            for (int p = 1; p <= PRODUCTS_PER_CATEGORY; p++) {
+                // Metade do cardápio vai para a cozinha, o resto sai pelo bar
+                products.add(productService.createProduct(
+                        new Product(null, "Produto " + c + "-" + p, category, 5.0 + c * p, p % 2 == 0)));
+            }
+        }
+    }
+
+    // Vendas fechadas espalhadas pelos últimos dias, com 1 a 4 itens cada. Gravadas direto por JDBC em lotes
+    // (o caminho da aplicação grava uma venda por vez e tornaria a preparação mais lenta que a medição).
+    private void seedSales(int sales) {
+        JdbcTemplate jdbc = getBean(JdbcTemplate.class);
+        Random random = new Random(42); // Mesmo histórico em todas as execuções
+        PaymentMethod[] paymentMethods = PaymentMethod.values();
+        historyDays = Math.max(1, sales / SALES_PER_DAY);
+        LocalDate firstDay = getFirstSalesDay();
+
+        List<Object[]> saleRows = new ArrayList<>(SEED_BATCH_SIZE);
+        List<Object[]> itemRows = new ArrayList<>(SEED_BATCH_SIZE * 4);
+        long itemId = 0;
+        for (int i = 0; i < sales; i++) {
+            String saleId = UUID.randomUUID().toString();
+            LocalDateTime timestamp = firstDay.plusDays(random.nextInt(historyDays))
+                    .atTime(17, 0).plusMinutes(random.nextInt(9 * 60)); // Das 17h às 2h
+            int itemCount = 1 + random.nextInt(4);
+            double total = 0;
+            for (int j = 0; j < itemCount; j++) {
+                Product product = products.get(random.nextInt(products.size()));
+                int quantity = 1 + random.nextInt(3);
+                total += product.getPrice() * quantity;
+                itemRows.add(new Object[]{++itemId, saleId, product.getId(), product.getName(), product.getPrice(), quantity,
+                        product.isSendToKitchen()});
+            }
+            saleRows.add(new Object[]{saleId, tableIds.get(random.nextInt(tableIds.size())), total,
+                    paymentMethods[random.nextInt(paymentMethods.length)].name(), Timestamp.valueOf(timestamp)});
+
+            if (saleRows.size() == SEED_BATCH_SIZE || i == sales - 1) {
+                jdbc.batchUpdate("INSERT INTO sales (id, table_id, total_amount, payment_method, timestamp) VALUES (?, ?, ?, ?, ?)", saleRows);
+                jdbc.batchUpdate("INSERT INTO sale_items (id, sale_id, product_id, product_name, price_at_sale, quantity, send_to_kitchen) VALUES (?, ?, ?, ?, ?, ?, ?)", itemRows);
+                saleRows.clear();
+                itemRows.clear();
+            }
+        }
+        getBean(IdGeneratorAlignment.class).alignWithExistingRows(); // Vendas novas continuam depois dos ids gravados aqui
+        getBean(ReportService.class).rebuildRollups();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.barmgtsystem.benchmarks;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Fechamento de comanda (venda, itens da venda, rollups, liberação da mesa) sobre o histórico de vendas.
+// Cada chamada fecha uma comanda aberta na preparação, que fica fora da medição; a chamada passa de 1 ms,
+// então a preparação por chamada (Level.Invocation) não distorce o resultado.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class CloseOrderBenchmark {
+
+    private static final int ITEMS_PER_ORDER = 6;
+
+    @Param({"20", "200"})
+    public int tables;
+
+    @Param({"100000"})
+    public int sales;
+
+    private BenchmarkContext bench;
+    private OrderService orderService;
+    private List<Product> products;
+    private PaymentMethod[] paymentMethods;
+    private int next;
+    private String orderId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(tables, sales);
+        orderService = bench.getBean(OrderService.class);
+        products = bench.getProducts();
+        paymentMethods = PaymentMethod.values();
+    }
+
+    // Comanda nova na próxima mesa, com itens de cozinha e de bar
+    @Setup(Level.Invocation)
+    public void openOrder() {
+        List<Long> tableIds = bench.getTableIds();
+        Order order = orderService.startOrder(tableIds.get(next % tableIds.size()));
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            orderService.addItemToOrder(order.getId(), products.get((next + i) % products.size()).getId(), 1 + i % 2);
+        }
+        orderId = order.getId();
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearKitchenBoards() {
+        bench.bumpKitchenTickets();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public Sale closeOrder() {
+        return orderService.closeOrder(orderId, paymentMethods[next++ % paymentMethods.length]);
+    }
+}
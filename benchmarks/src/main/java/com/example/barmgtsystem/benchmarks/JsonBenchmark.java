@@ -0,0 +1,76 @@
+package com.example.barmgtsystem.benchmarks;
+
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.service.OrderService;
+import com.example.barmgtsystem.service.ReportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização JSON das respostas mais pedidas, com o ObjectMapper configurado pelo Spring Boot
+// (o mesmo dos controllers): uma comanda aberta e as vendas de um dia.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class JsonBenchmark {
+
+    // Itens na comanda serializada
+    @Param({"10"})
+    public int orderItems;
+
+    @Param({"100000"})
+    public int sales;
+
+    private BenchmarkContext bench;
+    private ObjectMapper objectMapper;
+    private Order order;
+    private List<Sale> salesOfDay;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(20, sales);
+        objectMapper = bench.getBean(ObjectMapper.class);
+
+        OrderService orderService = bench.getBean(OrderService.class);
+        order = orderService.startOrder(bench.getTableIds().get(0));
+        for (int i = 0; i < orderItems; i++) {
+            order = orderService.addItemToOrder(order.getId(), bench.getProducts().get(i).getId(), 1 + i % 3);
+        }
+        salesOfDay = bench.getBean(ReportService.class).getSalesByDate(LocalDate.now().minusDays(7));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializeSalesOfDay() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(salesOfDay);
+    }
+}
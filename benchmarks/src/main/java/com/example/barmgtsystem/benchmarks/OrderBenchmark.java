@@ -0,0 +1,99 @@
+package com.example.barmgtsystem.benchmarks;
+
+import com.example.barmgtsystem.model.Order;
+import com.example.barmgtsystem.model.OrderItem;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.service.OrderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Alterações de comanda no meio do movimento: todas as mesas ocupadas, cada comanda com alguns itens,
+// e cada chamada numa mesa diferente (como vários garçons lançando ao mesmo tempo).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OrderBenchmark {
+
+    // Itens já lançados em cada comanda antes da medição
+    private static final int ITEMS_PER_ORDER = 8;
+
+    @Param({"20", "200"})
+    public int tables;
+
+    @Param({"100000"})
+    public int sales;
+
+    private BenchmarkContext bench;
+    private OrderService orderService;
+    private List<Product> products;
+    private final List<Order> orders = new ArrayList<>();
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(tables, sales);
+        orderService = bench.getBean(OrderService.class);
+        products = bench.getProducts();
+        for (Long tableId : bench.getTableIds()) {
+            Order order = orderService.startOrder(tableId);
+            for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+                order = orderService.addItemToOrder(order.getId(), productFor(orders.size(), i).getId(), 1);
+            }
+            orders.add(order);
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearKitchenBoards() {
+        bench.bumpKitchenTickets();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    // Produto lançado numa comanda: metade dos produtos já estava nela (só soma a quantidade);
+    // os outros entram como item novo na primeira vez e depois também só somam
+    @Benchmark
+    public Order addItemToOrder() {
+        int call = next++;
+        int orderIndex = call % orders.size();
+        int round = call / orders.size();
+        Product product = productFor(orderIndex, round % (ITEMS_PER_ORDER * 2));
+        return orderService.addItemToOrder(orders.get(orderIndex).getId(), product.getId(), 1);
+    }
+
+    // Quantidade de um item já lançado alterada entre 1 e 4
+    @Benchmark
+    public Order updateOrderItemQuantity() {
+        int call = next++;
+        Order order = orders.get(call % orders.size());
+        int round = call / orders.size();
+        OrderItem item = order.getItems().get(round % ITEMS_PER_ORDER);
+        return orderService.updateOrderItemQuantity(order.getId(), item.getId(), 1 + (round / ITEMS_PER_ORDER) % 4);
+    }
+
+    // Cada comanda usa uma faixa diferente do cardápio
+    private Product productFor(int orderIndex, int item) {
+        return products.get((orderIndex + item) % products.size());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.barmgtsystem.benchmarks;
+
+import com.example.barmgtsystem.model.Sale;
+import com.example.barmgtsystem.service.ReportService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Vendas de um dia (com os itens). O movimento do dia é o mesmo com qualquer tamanho de histórico, então o tempo
+// não deve crescer com o número de vendas. Cada chamada pede um dia diferente do histórico.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"100000", "500000"})
+    public int sales;
+
+    private BenchmarkContext bench;
+    private ReportService reportService;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        bench = BenchmarkContext.start(20, sales);
+        reportService = bench.getBean(ReportService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bench.close();
+    }
+
+    @Benchmark
+    public List<Sale> getSalesByDate() {
+        return reportService.getSalesByDate(bench.getFirstSalesDay().plusDays(next++ % bench.getHistoryDays()));
+    }
+}
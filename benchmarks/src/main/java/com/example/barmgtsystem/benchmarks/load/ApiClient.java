@@ -0,0 +1,96 @@
+package com.example.barmgtsystem.benchmarks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Cliente HTTP dos terminais, compartilhado: mede cada chamada e agrupa pelo endpoint (caminho com {variáveis})
+class ApiClient {
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    // Resposta já lida; body é null quando a resposta não tem corpo JSON
+    record Response(int status, JsonNode body) {
+        boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+    }
+
+    ApiClient(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    Response get(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).GET());
+    }
+
+    Response post(String endpoint, String path, Object body) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).POST(json(body)));
+    }
+
+    Response put(String endpoint, String path, Object body) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).PUT(json(body)));
+    }
+
+    Response delete(String endpoint, String path) {
+        return send(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path)).DELETE());
+    }
+
+    Collection<EndpointStats> getStats() {
+        return stats.values();
+    }
+
+    private Response send(String endpoint, HttpRequest.Builder request) {
+        request.timeout(REQUEST_TIMEOUT).header("Content-Type", "application/json");
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, EndpointStats::new);
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            endpointStats.record(0, System.nanoTime() - start);
+            return new Response(0, null);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new Response(0, null);
+        }
+        endpointStats.record(response.statusCode(), System.nanoTime() - start);
+        return new Response(response.statusCode(), readJson(response.body()));
+    }
+
+    private JsonNode readJson(byte[] body) {
+        if (body.length == 0) {
+            return null;
+        }
+        try {
+            return objectMapper.readTree(body);
+        } catch (IOException e) {
+            return null; // Corpo que não é JSON (ex.: página de erro)
+        }
+    }
+
+    private HttpRequest.BodyPublisher json(Object body) {
+        try {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid request body", e);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.barmgtsystem.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Latências e respostas de um endpoint durante o teste de carga. Guarda todas as amostras (uma noite
+// simulada tem no máximo algumas centenas de milhares) para calcular os percentis exatos no final.
+class EndpointStats {
+
+    private final String name;
+    private long[] latenciesNanos = new long[1024];
+    private int count;
+    private final Map<Integer, Integer> statusCounts = new TreeMap<>();
+
+    EndpointStats(String name) {
+        this.name = name;
+    }
+
+    synchronized void record(int status, long latencyNanos) {
+        if (count == latenciesNanos.length) {
+            latenciesNanos = Arrays.copyOf(latenciesNanos, count * 2);
+        }
+        latenciesNanos[count++] = latencyNanos;
+        statusCounts.merge(status, 1, Integer::sum);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    synchronized int getCount() {
+        return count;
+    }
+
+    // Respostas fora da faixa 2xx, por status (0 = falha de conexão)
+    synchronized Map<Integer, Integer> getErrorCounts() {
+        Map<Integer, Integer> errors = new TreeMap<>();
+        statusCounts.forEach((status, total) -> {
+            if (status < 200 || status >= 300) {
+                errors.put(status, total);
+            }
+        });
+        return errors;
+    }
+
+    // Percentil (0-100) em milissegundos, pelo método do posto mais próximo
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(rank, 1) - 1] / 1_000_000.0;
+    }
+}
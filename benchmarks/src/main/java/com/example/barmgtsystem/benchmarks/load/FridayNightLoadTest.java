@@ -0,0 +1,166 @@
+package com.example.barmgtsystem.benchmarks.load;
+
+import com.example.barmgtsystem.benchmarks.BenchmarkContext;
+import com.example.barmgtsystem.enums.TableStatus;
+import com.example.barmgtsystem.model.Product;
+import com.example.barmgtsystem.model.RestaurantTable;
+import com.example.barmgtsystem.service.TableService;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Sexta à noite: N terminais de garçom e alguns gerentes usando a API REST ao mesmo tempo, contra o backend
+// com banco H2 embutido. No final mostra vazão e latência (p50/p99) por endpoint e confere as invariantes:
+// nenhuma mesa com duas comandas abertas, registro de mesas coerente com as comandas e vendas com o total
+// igual à soma dos itens.
+//
+// java -cp target/benchmarks.jar com.example.barmgtsystem.benchmarks.load.FridayNightLoadTest --terminals=24 --duration=120
+public class FridayNightLoadTest {
+
+    private static final double MONEY_TOLERANCE = 0.005;
+    // Tempo para os garçons fecharem as comandas em andamento depois do fim
+    private static final long FINISH_GRACE_SECONDS = 60;
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        int terminals = intOption(options, "terminals", 24);
+        int managers = intOption(options, "managers", 2);
+        int tables = intOption(options, "tables", 40);
+        int durationSeconds = intOption(options, "duration", 60);
+        int sales = intOption(options, "sales", 100_000);
+        int thinkMs = intOption(options, "think-ms", 50);
+        int managerThinkMs = intOption(options, "manager-think-ms", 1000);
+
+        System.out.println("Preparando o backend: " + tables + " mesas, " + sales + " vendas no histórico...");
+        int exitCode;
+        try (BenchmarkContext bench = BenchmarkContext.start(tables, sales,
+                "--spring.main.web-application-type=servlet", "--server.port=0")) {
+            ApiClient api = new ApiClient("http://127.0.0.1:" + bench.getLocalPort());
+            List<String> productIds = bench.getProducts().stream().map(Product::getId).toList();
+
+            System.out.println("Rodando " + terminals + " terminais e " + managers + " gerentes por " + durationSeconds + " s...");
+            LocalDateTime runStart = LocalDateTime.now();
+            long startNanos = System.nanoTime();
+            long deadlineNanos = startNanos + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 1; i <= terminals; i++) {
+                threads.add(new Thread(new Waiter(api, bench.getTableIds(), productIds, deadlineNanos, thinkMs), "waiter-" + i));
+            }
+            for (int i = 1; i <= managers; i++) {
+                threads.add(new Thread(new Manager(api, deadlineNanos, managerThinkMs), "manager-" + i));
+            }
+            threads.forEach(Thread::start);
+            long joinDeadline = deadlineNanos + TimeUnit.SECONDS.toNanos(FINISH_GRACE_SECONDS);
+            for (Thread thread : threads) {
+                thread.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(joinDeadline - System.nanoTime())));
+                thread.interrupt();
+            }
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+            printReport(api, elapsedSeconds);
+            List<String> violations = checkInvariants(bench, runStart);
+            if (violations.isEmpty()) {
+                System.out.println("\nInvariantes: OK");
+                exitCode = 0;
+            } else {
+                System.out.println("\nInvariantes violadas:");
+                violations.forEach(violation -> System.out.println("  - " + violation));
+                exitCode = 1;
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    private static void printReport(ApiClient api, double elapsedSeconds) {
+        System.out.printf("%nResultado em %.1f s%n", elapsedSeconds);
+        System.out.printf("%-62s %8s %9s %10s %10s %10s  %s%n", "Endpoint", "Chamadas", "req/s", "p50 (ms)", "p99 (ms)", "máx (ms)", "Erros (status=qtd)");
+        List<EndpointStats> stats = new ArrayList<>(api.getStats());
+        stats.sort(Comparator.comparing(EndpointStats::getName));
+        for (EndpointStats endpoint : stats) {
+            System.out.printf("%-62s %8d %9.1f %10.1f %10.1f %10.1f  %s%n", endpoint.getName(), endpoint.getCount(),
+                    endpoint.getCount() / elapsedSeconds, endpoint.percentileMillis(50), endpoint.percentileMillis(99),
+                    endpoint.percentileMillis(100), endpoint.getErrorCounts().isEmpty() ? "-" : endpoint.getErrorCounts());
+        }
+        System.out.println("(POST /api/orders/start com 400 = mesa já ocupada por outro garçom, esperado sob disputa)");
+    }
+
+    private static List<String> checkInvariants(BenchmarkContext bench, LocalDateTime runStart) {
+        JdbcTemplate jdbc = bench.getBean(JdbcTemplate.class);
+        List<String> violations = new ArrayList<>();
+
+        for (Map<String, Object> row : jdbc.queryForList(
+                "SELECT table_id, COUNT(*) AS open_orders FROM orders WHERE status = 'OPEN' GROUP BY table_id HAVING COUNT(*) > 1")) {
+            violations.add("Mesa " + row.get("table_id") + " com " + row.get("open_orders") + " comandas abertas");
+        }
+
+        // Registro em memória e linha da mesa no banco devem apontar para a comanda aberta da mesa (ou nenhuma)
+        Map<Long, String> openOrderByTable = new HashMap<>();
+        for (Map<String, Object> row : jdbc.queryForList("SELECT table_id, id FROM orders WHERE status = 'OPEN'")) {
+            openOrderByTable.put(((Number) row.get("table_id")).longValue(), (String) row.get("id"));
+        }
+        for (RestaurantTable table : bench.getBean(TableService.class).getAllTables()) {
+            String openOrderId = openOrderByTable.get(table.getId());
+            boolean occupied = table.getStatus() != TableStatus.FREE;
+            if (occupied != (openOrderId != null) || (openOrderId != null && !openOrderId.equals(table.getOrderId()))) {
+                violations.add("Mesa " + table.getId() + " no registro: " + table.getStatus() + " com a comanda "
+                        + table.getOrderId() + ", comanda aberta no banco: " + openOrderId);
+            }
+        }
+        for (Map<String, Object> row : jdbc.queryForList("SELECT id, order_id FROM tables")) {
+            Long tableId = ((Number) row.get("id")).longValue();
+            String openOrderId = openOrderByTable.get(tableId);
+            Object storedOrderId = row.get("order_id");
+            if (openOrderId == null ? storedOrderId != null : !openOrderId.equals(storedOrderId)) {
+                violations.add("Mesa " + tableId + " no banco aponta para a comanda " + storedOrderId
+                        + ", comanda aberta: " + openOrderId);
+            }
+        }
+
+        for (Map<String, Object> row : jdbc.queryForList(
+                "SELECT s.id, s.total_amount, COALESCE(SUM(i.price_at_sale * i.quantity), 0) AS items_total "
+                        + "FROM sales s LEFT JOIN sale_items i ON i.sale_id = s.id WHERE s.timestamp >= ? "
+                        + "GROUP BY s.id, s.total_amount HAVING ABS(s.total_amount - COALESCE(SUM(i.price_at_sale * i.quantity), 0)) > ?",
+                Timestamp.valueOf(runStart), MONEY_TOLERANCE)) {
+            violations.add("Venda " + row.get("id") + " com total " + row.get("total_amount") + " e itens somando " + row.get("items_total"));
+        }
+        for (Map<String, Object> row : jdbc.queryForList(
+                "SELECT order_id, COUNT(*) AS sales FROM sales WHERE order_id IS NOT NULL GROUP BY order_id HAVING COUNT(*) > 1")) {
+            violations.add("Comanda " + row.get("order_id") + " fechada em " + row.get("sales") + " vendas");
+        }
+        for (Map<String, Object> row : jdbc.queryForList(
+                "SELECT o.id, o.total_amount AS order_total, s.total_amount AS sale_total FROM orders o JOIN sales s ON s.order_id = o.id "
+                        + "WHERE ABS(o.total_amount - s.total_amount) > ?", MONEY_TOLERANCE)) {
+            violations.add("Comanda " + row.get("id") + " com total " + row.get("order_total") + " e venda de " + row.get("sale_total"));
+        }
+
+        Integer closed = jdbc.queryForObject("SELECT COUNT(*) FROM sales WHERE timestamp >= ?", Integer.class, Timestamp.valueOf(runStart));
+        System.out.println("\nVendas fechadas durante o teste: " + closed + ", comandas ainda abertas: " + openOrderByTable.size());
+        return violations;
+    }
+
+    // --chave=valor
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Invalid option " + arg + " (expected --name=value)");
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    private static int intOption(Map<String, String> options, String name, int defaultValue) {
+        String value = options.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+}
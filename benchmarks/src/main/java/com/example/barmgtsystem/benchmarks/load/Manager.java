@@ -0,0 +1,34 @@
+package com.example.barmgtsystem.benchmarks.load;
+
+import java.time.LocalDate;
+
+// Gerente acompanhando a noite pelos relatórios enquanto os garçons trabalham
+class Manager implements Runnable {
+
+    private final ApiClient api;
+    private final long deadlineNanos;
+    private final int thinkMs;
+
+    Manager(ApiClient api, long deadlineNanos, int thinkMs) {
+        this.api = api;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkMs = thinkMs;
+    }
+
+    @Override
+    public void run() {
+        LocalDate today = LocalDate.now();
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            api.get("GET /api/tables", "/api/tables");
+            api.get("GET /api/reports/sales", "/api/reports/sales?from=" + today + "&to=" + today + "&limit=50");
+            api.get("GET /api/reports/sales/by-date", "/api/reports/sales/by-date?date=" + today);
+            api.get("GET /api/reports/rollups/daily-payments",
+                    "/api/reports/rollups/daily-payments?from=" + today.minusDays(30) + "&to=" + today);
+            try {
+                Thread.sleep(thinkMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+}
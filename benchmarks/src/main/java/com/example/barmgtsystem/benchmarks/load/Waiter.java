@@ -0,0 +1,141 @@
+package com.example.barmgtsystem.benchmarks.load;
+
+import com.example.barmgtsystem.enums.PaymentMethod;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Terminal de um garçom: abre uma mesa livre, lança itens em rajadas ao longo de algumas rodadas, corrige
+// quantidades, às vezes lança na comanda de outra mesa e fecha a conta com uma forma de pagamento qualquer.
+// Quando o tempo acaba, termina a comanda em andamento antes de parar.
+class Waiter implements Runnable {
+
+    private static final PaymentMethod[] PAYMENT_METHODS = PaymentMethod.values();
+
+    private final ApiClient api;
+    private final List<Long> tableIds;
+    private final List<String> productIds;
+    private final long deadlineNanos;
+    private final int thinkMs;
+
+    Waiter(ApiClient api, List<Long> tableIds, List<String> productIds, long deadlineNanos, int thinkMs) {
+        this.api = api;
+        this.tableIds = tableIds;
+        this.productIds = productIds;
+        this.deadlineNanos = deadlineNanos;
+        this.thinkMs = thinkMs;
+    }
+
+    @Override
+    public void run() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadlineNanos && !Thread.currentThread().isInterrupted()) {
+            Long tableId = tableIds.get(random.nextInt(tableIds.size()));
+            ApiClient.Response started = api.post("POST /api/orders/start/{tableId}", "/api/orders/start/" + tableId, Map.of());
+            if (!started.isOk()) {
+                think(random); // Mesa ocupada por outro garçom: procura outra
+                continue;
+            }
+            serveTable(started.body(), random);
+        }
+    }
+
+    private void serveTable(JsonNode order, ThreadLocalRandom random) {
+        String orderId = order.get("id").asText();
+        int rounds = 1 + random.nextInt(3);
+        for (int round = 0; round < rounds; round++) {
+            // Rajada: o pedido da mesa lançado item a item, sem pausa
+            int items = 2 + random.nextInt(4);
+            for (int i = 0; i < items; i++) {
+                order = latest(order, addItem(orderId, random));
+            }
+            think(random);
+
+            if (random.nextInt(100) < 30) {
+                order = latest(order, changeQuantity(orderId, order, random));
+            }
+            if (random.nextInt(100) < 10) {
+                order = latest(order, removeItem(orderId, order, random));
+            }
+            if (random.nextInt(100) < 15) {
+                helpAnotherTable(random);
+            }
+            think(random);
+        }
+
+        if (random.nextInt(100) < 5) {
+            api.post("POST /api/orders/{orderId}/cancel", "/api/orders/" + orderId + "/cancel", Map.of());
+            return;
+        }
+        Map<String, String> payment = Map.of("paymentMethod", PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)].name());
+        ApiClient.Response closed = api.post("POST /api/orders/{orderId}/close", "/api/orders/" + orderId + "/close", payment);
+        if (closed.status() == 409) {
+            closed = api.post("POST /api/orders/{orderId}/close", "/api/orders/" + orderId + "/close", payment);
+        }
+        if (!closed.isOk()) {
+            // Comanda que ficou vazia (todos os itens removidos) não fecha: cancela para liberar a mesa
+            api.post("POST /api/orders/{orderId}/cancel", "/api/orders/" + orderId + "/cancel", Map.of());
+        }
+    }
+
+    private ApiClient.Response addItem(String orderId, ThreadLocalRandom random) {
+        Map<String, Object> item = Map.of(
+                "productId", productIds.get(random.nextInt(productIds.size())),
+                "quantity", 1 + random.nextInt(3));
+        return api.post("POST /api/orders/{orderId}/add-item", "/api/orders/" + orderId + "/add-item", item);
+    }
+
+    private ApiClient.Response changeQuantity(String orderId, JsonNode order, ThreadLocalRandom random) {
+        JsonNode item = randomItem(order, random);
+        if (item == null) {
+            return null;
+        }
+        return api.put("PUT /api/orders/{orderId}/update-item-quantity/{orderItemId}",
+                "/api/orders/" + orderId + "/update-item-quantity/" + item.get("id").asLong(),
+                Map.of("newQuantity", 1 + random.nextInt(4)));
+    }
+
+    private ApiClient.Response removeItem(String orderId, JsonNode order, ThreadLocalRandom random) {
+        JsonNode item = randomItem(order, random);
+        if (item == null) {
+            return null;
+        }
+        return api.delete("DELETE /api/orders/{orderId}/remove-item/{orderItemId}",
+                "/api/orders/" + orderId + "/remove-item/" + item.get("id").asLong());
+    }
+
+    // Outro garçom lança na mesma comanda: concorre com o terminal dono da mesa
+    private void helpAnotherTable(ThreadLocalRandom random) {
+        Long tableId = tableIds.get(random.nextInt(tableIds.size()));
+        ApiClient.Response active = api.get("GET /api/orders/{tableId}/active", "/api/orders/" + tableId + "/active");
+        if (active.isOk() && active.body() != null) {
+            addItem(active.body().get("id").asText(), random);
+        }
+    }
+
+    private JsonNode randomItem(JsonNode order, ThreadLocalRandom random) {
+        JsonNode items = order.get("items");
+        if (items == null || items.isEmpty()) {
+            return null;
+        }
+        return items.get(random.nextInt(items.size()));
+    }
+
+    // Comanda mais recente devolvida pela API (a anterior se a chamada falhou)
+    private JsonNode latest(JsonNode order, ApiClient.Response response) {
+        return response != null && response.isOk() && response.body() != null ? response.body() : order;
+    }
+
+    private void think(ThreadLocalRandom random) {
+        if (thinkMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(random.nextInt(thinkMs + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
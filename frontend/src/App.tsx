@@ -10,6 +10,7 @@ import Tables from './pages/Tables';
 import Products from './pages/Products';
 import Reports from './pages/Reports';
 import POSScreen from './pages/POSScreen';
+import Kitchen from './pages/Kitchen';
 
 // Contexts
 import { AuthProvider, useAuth } from './contexts/AuthContext';
@@ -74,6 +75,14 @@ function AppContent() {
           </ProtectedRoute>
         } />
         
+        <Route path="/kitchen" element={
+          <ProtectedRoute>
+            <Layout>
+              <Kitchen />
+            </Layout>
+          </ProtectedRoute>
+        } />
+        
         <Route path="/reports" element={
           <ProtectedRoute>
             <Layout>
@@ -6,6 +6,7 @@ import {
   Layers, 
   BarChart3, 
   ShoppingBag,
+  ChefHat,
   Menu,
   X
 } from 'lucide-react';
@@ -37,6 +38,11 @@ const Layout: React.FC<LayoutProps> = ({ children }) => {
       path: '/products', 
       icon: <ShoppingBag className="w-6 h-6" /> 
     },
+    { 
+      name: 'Preparo', 
+      path: '/kitchen', 
+      icon: <ChefHat className="w-6 h-6" /> 
+    },
     { 
       name: 'Relatórios', 
       path: '/reports', 
@@ -1,7 +1,8 @@
-import React, { createContext, useContext, useState, useEffect, useCallback } from 'react';
+import React, { createContext, useContext, useState, useEffect, useCallback, useRef } from 'react';
 import { useAuth } from './AuthContext';
 import API_BASE_URL from '../config/api'; // Importa a URL base da API
 import { toast } from 'react-toastify';
+import { format } from 'date-fns/format';
 
 // Tipos - Mantenha-os compatíveis com suas entidades Java
 export type TableStatus = 'FREE' | 'OCCUPIED' | 'ALERT'; // Enums do backend são em maiúsculas
@@ -50,6 +51,11 @@ export interface Sale {
   timestamp: string; // LocalDateTime do Java vem como string ISO 8601
 }
 
+export interface SalesPage {
+  content: Sale[];
+  nextCursor: string | null; // null na última página
+}
+
 export interface SaleItem {
   id?: number; // ID do SaleItem
   productId: string;
@@ -59,10 +65,46 @@ export interface SaleItem {
   sendToKitchen: boolean;
 }
 
+// Fechamento do dia (relatório Z) congelado no backend
+export interface DayClosing {
+  id: number;
+  businessDate: string;
+  closedAt: string;
+  saleCount: number;
+  itemCount: number;
+  totalAmount: number;
+  cashAmount: number;
+  pixAmount: number;
+  debitAmount: number;
+  creditAmount: number;
+  canceledOrderCount: number;
+  firstSaleAt: string | null;
+  lastSaleAt: string | null;
+}
+
+// Filtros da lista de vendas, aplicados no backend (/api/reports/sales)
+export interface SalesFilters {
+  date: string; // yyyy-MM-dd ou '' para todas
+  paymentMethod: string;
+  product: string;
+  sortBy: 'date' | 'amount';
+  sortDirection: 'asc' | 'desc';
+}
+
+// Totais do período vindos dos rollups (não dependem de quantas vendas foram carregadas)
+export interface SalesSummary {
+  total: number;
+  count: number;
+  byPaymentMethod: Record<PaymentMethod, number>;
+  topProducts: [string, { quantity: number; total: number }][];
+}
+
 interface OrderContextType {
   tables: TableItem[];
   orders: Record<string, Order>;
   sales: Sale[];
+  hasMoreSales: boolean;
+  salesSummary: SalesSummary;
   getTable: (tableId: number) => TableItem | undefined;
   getTableOrder: (tableId: number) => Order | undefined;
   startOrder: (tableId: number) => Promise<void>;
@@ -72,11 +114,40 @@ interface OrderContextType {
   closeOrder: (tableId: number, paymentMethod: PaymentMethod) => Promise<void>;
   cancelOrder: (tableId: number) => Promise<void>;
   cancelSale: (saleId: string) => Promise<void>;
+  closeDay: (date: string) => Promise<DayClosing | undefined>;
   printKitchenOrder: (tableId: number) => void;
   printReceipt: (tableId: number) => void;
-  fetchAllSales: () => Promise<void>;
+  fetchSales: (filters: SalesFilters) => Promise<void>;
+  fetchMoreSales: () => Promise<void>;
 }
 
+const emptySalesSummary: SalesSummary = {
+  total: 0,
+  count: 0,
+  byPaymentMethod: { CASH: 0, PIX: 0, DEBIT: 0, CREDIT: 0 },
+  topProducts: []
+};
+
+const defaultSalesFilters: SalesFilters = { date: '', paymentMethod: '', product: '', sortBy: 'date', sortDirection: 'desc' };
+
+const SALES_PAGE_SIZE = 50;
+
+// Monta a query de /reports/sales a partir dos filtros (filtragem, ordenação e paginação ficam no banco)
+const buildSalesQuery = (filters: SalesFilters, cursor: string | null) => {
+  const params = new URLSearchParams();
+  if (filters.date) {
+    params.set('from', filters.date);
+    params.set('to', filters.date);
+  }
+  if (filters.paymentMethod) params.set('paymentMethod', filters.paymentMethod);
+  if (filters.product.trim()) params.set('product', filters.product.trim());
+  params.set('sort', filters.sortBy);
+  params.set('direction', filters.sortDirection);
+  params.set('limit', String(SALES_PAGE_SIZE));
+  if (cursor) params.set('cursor', cursor);
+  return params.toString();
+};
+
 const OrderContext = createContext<OrderContextType | undefined>(undefined);
 
 export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ children }) => {
@@ -84,6 +155,9 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
   const [tables, setTables] = useState<TableItem[]>([]);
   const [orders, setOrders] = useState<Record<string, Order>>({}); // Estado para armazenar as ordens ativas
   const [sales, setSales] = useState<Sale[]>([]);
+  const [salesCursor, setSalesCursor] = useState<string | null>(null);
+  const [salesSummary, setSalesSummary] = useState<SalesSummary>(emptySalesSummary);
+  const salesFiltersRef = useRef<SalesFilters>(defaultSalesFilters); // Últimos filtros usados, para recarregar após fechar/cancelar
 
   // Funções de fetch para manter o estado sincronizado
   const fetchTables = useCallback(async () => {
@@ -130,14 +204,57 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
     return undefined;
   }, [currentUser]);
 
-  // Função para buscar todas as vendas
-  const fetchAllSales = useCallback(async () => {
+  // Resumo do período a partir dos rollups por dia/pagamento e hora/produto
+  const fetchSalesSummary = useCallback(async (filters: SalesFilters) => {
+    const from = filters.date || '2000-01-01';
+    const to = filters.date || format(new Date(), 'yyyy-MM-dd');
+    try {
+      const [dailyResponse, hourlyResponse] = await Promise.all([
+        fetch(`${API_BASE_URL}/reports/rollups/daily-payments?from=${from}&to=${to}`),
+        fetch(`${API_BASE_URL}/reports/rollups/hourly-products?from=${from}&to=${to}`)
+      ]);
+      if (!dailyResponse.ok || !hourlyResponse.ok) {
+        toast.error('Falha ao carregar resumo de vendas.');
+        return;
+      }
+      const daily: { paymentMethod: PaymentMethod; saleCount: number; revenue: number }[] = await dailyResponse.json();
+      const hourly: { productName: string; quantity: number; revenue: number }[] = await hourlyResponse.json();
+
+      const summary: SalesSummary = { ...emptySalesSummary, byPaymentMethod: { ...emptySalesSummary.byPaymentMethod } };
+      daily
+        .filter(row => !filters.paymentMethod || row.paymentMethod === filters.paymentMethod)
+        .forEach(row => {
+          summary.total += row.revenue;
+          summary.count += row.saleCount;
+          summary.byPaymentMethod[row.paymentMethod] += row.revenue;
+        });
+      const byProduct = hourly.reduce((acc, row) => {
+        if (!acc[row.productName]) acc[row.productName] = { quantity: 0, total: 0 };
+        acc[row.productName].quantity += row.quantity;
+        acc[row.productName].total += row.revenue;
+        return acc;
+      }, {} as Record<string, { quantity: number; total: number }>);
+      summary.topProducts = Object.entries(byProduct)
+        .filter(([, data]) => data.quantity > 0)
+        .sort((a, b) => b[1].quantity - a[1].quantity);
+      setSalesSummary(summary);
+    } catch (error) {
+      console.error('Erro ao buscar resumo de vendas:', error);
+      toast.error('Erro de conexão ao buscar resumo de vendas.');
+    }
+  }, []);
+
+  // Busca a primeira página de vendas com os filtros informados (e o resumo do período)
+  const fetchSales = useCallback(async (filters: SalesFilters) => {
     if (!currentUser) return;
+    salesFiltersRef.current = filters;
     try {
-      const response = await fetch(`${API_BASE_URL}/reports/sales`);
+      const response = await fetch(`${API_BASE_URL}/reports/sales?${buildSalesQuery(filters, null)}`);
       if (response.ok) {
-        const data: Sale[] = await response.json();
-        setSales(data);
+        const data: SalesPage = await response.json();
+        if (salesFiltersRef.current !== filters) return; // Filtros mudaram durante a requisição
+        setSales(data.content);
+        setSalesCursor(data.nextCursor);
       } else {
         toast.error('Falha ao carregar vendas.');
       }
@@ -145,26 +262,67 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
       console.error('Erro ao buscar vendas:', error);
       toast.error('Erro de conexão ao buscar vendas.');
     }
-  }, [currentUser]);
+    fetchSalesSummary(filters);
+  }, [currentUser, fetchSalesSummary]);
+
+  // Próxima página (keyset) com os mesmos filtros
+  const fetchMoreSales = useCallback(async () => {
+    if (!currentUser || !salesCursor) return;
+    const filters = salesFiltersRef.current;
+    try {
+      const response = await fetch(`${API_BASE_URL}/reports/sales?${buildSalesQuery(filters, salesCursor)}`);
+      if (response.ok) {
+        const data: SalesPage = await response.json();
+        if (salesFiltersRef.current !== filters) return;
+        setSales(prev => [...prev, ...data.content]);
+        setSalesCursor(data.nextCursor);
+      } else {
+        toast.error('Falha ao carregar mais vendas.');
+      }
+    } catch (error) {
+      console.error('Erro ao buscar vendas:', error);
+      toast.error('Erro de conexão ao buscar vendas.');
+    }
+  }, [currentUser, salesCursor]);
+
+  // Aplica localmente uma mesa alterada (vinda do stream ou da resposta de uma ação)
+  const applyTableUpdate = useCallback((updated: TableItem) => {
+    setTables(prev => {
+      const exists = prev.some(t => t.id === updated.id);
+      const next = exists ? prev.map(t => (t.id === updated.id ? updated : t)) : [...prev, updated];
+      return next.sort((a, b) => a.id - b.id);
+    });
+  }, []);
 
   // Efeitos para carregar dados iniciais e monitorar
   useEffect(() => {
     if (currentUser) {
-      fetchTables();
-      fetchAllSales();
-      // O monitoramento de status da mesa (alertas) é feito pelo backend.
-      // O frontend apenas busca as mesas periodicamente para refletir o estado.
-      const interval = setInterval(() => {
-        fetchTables();
-      }, 60000); // A cada 1 minuto
-      return () => clearInterval(interval);
+      // O monitoramento de status da mesa (alertas) é feito pelo backend, que envia as mudanças via SSE.
+      // O primeiro evento (e cada reconexão automática do EventSource) traz o snapshot completo das mesas.
+      const source = new EventSource(`${API_BASE_URL}/tables/stream`);
+      source.addEventListener('snapshot', (event) => {
+        const data: TableItem[] = JSON.parse((event as MessageEvent).data);
+        setTables(data);
+      });
+      source.addEventListener('table', (event) => {
+        applyTableUpdate(JSON.parse((event as MessageEvent).data));
+      });
+      source.onerror = () => {
+        // Conexão perdida: o EventSource reconecta sozinho; se o servidor recusou, recarrega uma vez via REST
+        if (source.readyState === EventSource.CLOSED) {
+          fetchTables();
+        }
+      };
+      return () => source.close();
     } else {
       // Limpar estados se o usuário não estiver logado
       setTables([]);
       setOrders({});
       setSales([]);
+      setSalesCursor(null);
+      setSalesSummary(emptySalesSummary);
     }
-  }, [currentUser, fetchTables, fetchAllSales]);
+  }, [currentUser, fetchTables, applyTableUpdate]);
 
   // Métodos do contexto
   const getTable = (tableId: number) => {
@@ -185,7 +343,8 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
         const newOrder: Order = await response.json();
         setOrders(prev => ({ ...prev, [newOrder.id]: newOrder })); // Adiciona a nova ordem ao mapa
         toast.success(`Mesa ${tableId} aberta com sucesso!`);
-        await fetchTables(); // Atualiza a lista de mesas para refletir o status OCCUPIED
+        // Reflete o status OCCUPIED imediatamente; o stream confirma para os demais terminais
+        applyTableUpdate({ id: tableId, status: 'OCCUPIED', orderId: newOrder.id, startTime: newOrder.startTime });
       } else {
         const errorText = await response.text();
         toast.error(`Falha ao abrir mesa: ${errorText}`);
@@ -302,8 +461,8 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
       });
       if (response.ok) {
         toast.success(`Atendimento da Mesa ${tableId} finalizado com sucesso!`);
-        await fetchTables(); // Atualiza a lista de mesas para liberar a mesa
-        await fetchAllSales(); // Atualiza a lista de vendas (para relatórios)
+        applyTableUpdate({ id: tableId, status: 'FREE', orderId: null, startTime: null }); // Libera a mesa localmente
+        await fetchSales(salesFiltersRef.current); // Atualiza a lista de vendas (para relatórios)
         setOrders(prev => { // Remove a ordem fechada do estado local
             const newOrders = { ...prev };
             delete newOrders[orderId];
@@ -333,7 +492,7 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
       });
       if (response.ok) {
         toast.info(`Comanda da Mesa ${tableId} cancelada.`);
-        await fetchTables(); // Atualiza a lista de mesas para liberar a mesa
+        applyTableUpdate({ id: tableId, status: 'FREE', orderId: null, startTime: null }); // Libera a mesa localmente
         setOrders(prev => { // Remove a ordem cancelada do estado local
             const newOrders = { ...prev };
             delete newOrders[orderId];
@@ -356,7 +515,9 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
       });
       if (response.ok) { // 204 No Content é sucesso
         toast.success('Venda cancelada com sucesso!');
-        await fetchAllSales(); // Recarrega a lista de vendas
+        await fetchSales(salesFiltersRef.current); // Recarrega a lista de vendas
+      } else if (response.status === 409) {
+        toast.error('Não é possível cancelar uma venda de um dia já fechado.');
       } else {
         const errorText = await response.text();
         toast.error(`Falha ao cancelar venda: ${errorText}`);
@@ -367,6 +528,31 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
     }
   };
 
+  // Fecha o dia no backend; se já estava fechado, devolve o fechamento gravado
+  const closeDay = async (date: string): Promise<DayClosing | undefined> => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/reports/day-close?date=${date}`, {
+        method: 'POST',
+      });
+      if (response.ok) {
+        toast.success('Fechamento do dia realizado com sucesso!');
+        return await response.json();
+      }
+      if (response.status === 409) {
+        const existing = await fetch(`${API_BASE_URL}/reports/day-close/${date}`);
+        if (existing.ok) {
+          toast.info('Este dia já foi fechado. Exibindo o fechamento registrado.');
+          return await existing.json();
+        }
+      }
+      toast.error('Falha ao realizar o fechamento do dia.');
+    } catch (error) {
+      console.error('Erro ao fechar o dia:', error);
+      toast.error('Erro de conexão ao fechar o dia.');
+    }
+    return undefined;
+  };
+
   // Estas funções apenas logarão no console do navegador por enquanto,
   // pois a integração real com impressoras não é parte do escopo atual.
   const printKitchenOrder = (tableId: number) => {
@@ -407,6 +593,8 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
     tables,
     orders,
     sales,
+    hasMoreSales: salesCursor !== null,
+    salesSummary,
     getTable,
     getTableOrder,
     startOrder,
@@ -416,9 +604,11 @@ export const OrderProvider: React.FC<{ children: React.ReactNode }> = ({ childre
     closeOrder,
     cancelOrder,
     cancelSale,
+    closeDay,
     printKitchenOrder,
     printReceipt,
-    fetchAllSales,
+    fetchSales,
+    fetchMoreSales,
   };
 
   return <OrderContext.Provider value={value}>{children}</OrderContext.Provider>;
@@ -0,0 +1,156 @@
+import React, { useCallback, useEffect, useState } from 'react';
+import { ChefHat, Wine, Clock, Check, Play } from 'lucide-react';
+import { toast } from 'react-toastify';
+import API_BASE_URL from '../config/api';
+
+// Tipos - compatíveis com KitchenDisplayTicket / KitchenStation do backend
+export type KitchenStation = 'KITCHEN' | 'BAR';
+
+export interface KitchenTicket {
+  id: number;
+  station: KitchenStation;
+  orderId: string;
+  tableId: number;
+  productId: string;
+  productName: string;
+  quantity: number;
+  status: 'NEW' | 'ACKNOWLEDGED';
+  createdAt: string;
+  acknowledgedAt: string | null;
+}
+
+const stationNames: Record<KitchenStation, string> = {
+  KITCHEN: 'Cozinha',
+  BAR: 'Bar',
+};
+
+const Kitchen: React.FC = () => {
+  const [station, setStation] = useState<KitchenStation>('KITCHEN');
+  const [tickets, setTickets] = useState<KitchenTicket[]>([]);
+  const [now, setNow] = useState(Date.now());
+
+  // Atualiza ou insere o ticket mantendo a ordem de chegada (id crescente)
+  const applyTicket = useCallback((ticket: KitchenTicket) => {
+    setTickets(prev => {
+      const index = prev.findIndex(t => t.id === ticket.id);
+      if (index >= 0) {
+        const next = [...prev];
+        next[index] = ticket;
+        return next;
+      }
+      return [...prev, ticket].sort((a, b) => a.id - b.id);
+    });
+  }, []);
+
+  useEffect(() => {
+    // O primeiro evento (e cada reconexão automática) traz a fila inteira da estação; depois, só as mudanças
+    const source = new EventSource(`${API_BASE_URL}/kitchen/${station}/stream`);
+    source.addEventListener('snapshot', (event) => {
+      setTickets(JSON.parse((event as MessageEvent).data));
+    });
+    source.addEventListener('ticket', (event) => {
+      applyTicket(JSON.parse((event as MessageEvent).data));
+    });
+    source.addEventListener('removed', (event) => {
+      const ticketId = Number((event as MessageEvent).data);
+      setTickets(prev => prev.filter(t => t.id !== ticketId));
+    });
+    return () => source.close();
+  }, [station, applyTicket]);
+
+  // Relógio da tela: tempo de espera de cada ticket
+  useEffect(() => {
+    const timer = setInterval(() => setNow(Date.now()), 15000);
+    return () => clearInterval(timer);
+  }, []);
+
+  const acknowledge = async (ticketId: number) => {
+    const response = await fetch(`${API_BASE_URL}/kitchen/tickets/${ticketId}/acknowledge`, { method: 'POST' });
+    if (!response.ok) {
+      toast.error('Pedido não está mais na tela.');
+    }
+  };
+
+  const bump = async (ticketId: number) => {
+    const response = await fetch(`${API_BASE_URL}/kitchen/tickets/${ticketId}/bump`, { method: 'POST' });
+    if (!response.ok) {
+      toast.error('Pedido já foi concluído.');
+    }
+  };
+
+  const waitingMinutes = (createdAt: string) =>
+    Math.max(0, Math.floor((now - new Date(createdAt).getTime()) / 60000));
+
+  return (
+    <div className="p-6">
+      <div className="flex items-center justify-between mb-6">
+        <h1 className="text-2xl font-bold">Preparo - {stationNames[station]}</h1>
+        <div className="flex space-x-2">
+          <button
+            className={`flex items-center px-4 py-2 rounded-lg ${station === 'KITCHEN' ? 'bg-emerald-600' : 'bg-gray-700 hover:bg-gray-600'}`}
+            onClick={() => setStation('KITCHEN')}
+          >
+            <ChefHat className="w-5 h-5 mr-2" />
+            Cozinha
+          </button>
+          <button
+            className={`flex items-center px-4 py-2 rounded-lg ${station === 'BAR' ? 'bg-emerald-600' : 'bg-gray-700 hover:bg-gray-600'}`}
+            onClick={() => setStation('BAR')}
+          >
+            <Wine className="w-5 h-5 mr-2" />
+            Bar
+          </button>
+        </div>
+      </div>
+
+      {tickets.length === 0 ? (
+        <p className="text-gray-400">Nenhum pedido aguardando.</p>
+      ) : (
+        <div className="grid grid-cols-1 sm:grid-cols-2 lg:grid-cols-4 gap-4">
+          {tickets.map(ticket => {
+            const minutes = waitingMinutes(ticket.createdAt);
+            return (
+              <div
+                key={ticket.id}
+                className={`rounded-lg p-4 border ${
+                  ticket.status === 'ACKNOWLEDGED' ? 'bg-gray-800 border-yellow-500' : 'bg-gray-800 border-gray-700'
+                }`}
+              >
+                <div className="flex items-center justify-between mb-2">
+                  <span className="text-lg font-semibold">Mesa {ticket.tableId}</span>
+                  <span className={`flex items-center text-sm ${minutes >= 15 ? 'text-red-400' : 'text-gray-400'}`}>
+                    <Clock className="w-4 h-4 mr-1" />
+                    {minutes} min
+                  </span>
+                </div>
+                <p className="text-xl mb-4">
+                  {ticket.quantity}x {ticket.productName}
+                </p>
+                <div className="flex space-x-2">
+                  {ticket.status === 'NEW' && (
+                    <button
+                      className="flex items-center justify-center flex-1 px-3 py-2 rounded-lg bg-yellow-600 hover:bg-yellow-700"
+                      onClick={() => acknowledge(ticket.id)}
+                    >
+                      <Play className="w-4 h-4 mr-1" />
+                      Preparar
+                    </button>
+                  )}
+                  <button
+                    className="flex items-center justify-center flex-1 px-3 py-2 rounded-lg bg-emerald-600 hover:bg-emerald-700"
+                    onClick={() => bump(ticket.id)}
+                  >
+                    <Check className="w-4 h-4 mr-1" />
+                    Pronto
+                  </button>
+                </div>
+              </div>
+            );
+          })}
+        </div>
+      )}
+    </div>
+  );
+};
+
+export default Kitchen;
@@ -1,4 +1,4 @@
-import React, { useState, useEffect, useCallback } from 'react';
+import React, { useState, useEffect } from 'react';
 import {
   Download,
   Filter,
@@ -11,8 +11,9 @@ import {
   DollarSign
 } from 'lucide-react';
 import { format } from 'date-fns/format';
-import { useOrder, Sale, PaymentMethod, SaleItem } from '../contexts/OrderContext';
+import { useOrder, Sale, PaymentMethod, SaleItem, DayClosing } from '../contexts/OrderContext';
 import { toast } from 'react-toastify';
+import API_BASE_URL from '../config/api';
 
 const formatDate = (date: string): string => {
   return format(new Date(date), 'dd/MM/yyyy HH:mm');
@@ -34,7 +35,7 @@ const getPaymentMethodName = (method: PaymentMethod): string => {
 };
 
 const Reports: React.FC = () => {
-  const { sales, cancelSale, fetchAllSales } = useOrder();
+  const { sales, hasMoreSales, salesSummary: summary, cancelSale, closeDay, fetchSales, fetchMoreSales } = useOrder();
 
   const [dateFilter, setDateFilter] = useState<string>('');
   const [paymentMethodFilter, setPaymentMethodFilter] = useState<string>('');
@@ -43,58 +44,35 @@ const Reports: React.FC = () => {
   const [sortDirection, setSortDirection] = useState<'asc' | 'desc'>('desc');
   const [selectedSale, setSelectedSale] = useState<Sale | null>(null);
   const [isDayClosingModalOpen, setIsDayClosingModalOpen] = useState(false);
+  const [dayClosing, setDayClosing] = useState<DayClosing | null>(null); // Relatório Z gravado no backend
 
+  // Filtros e ordenação são aplicados no backend; a busca por produto espera o usuário parar de digitar
   useEffect(() => {
-    // É uma boa prática carregar os dados quando o componente monta
-    // se fetchAllSales não é chamado em outro lugar no fluxo principal.
-    // Certifique-se de que fetchAllSales não causa renderizações excessivas.
-    // fetchAllSales();
-  }, []); // [] para rodar apenas uma vez na montagem
-
-  const filteredSales = sales
-    .filter(sale => {
-      const saleDate = format(new Date(sale.timestamp), 'yyyy-MM-dd');
-      const includesSearchTerm = sale.items.some((item: SaleItem) =>
-        item.productName.toLowerCase().includes(searchTerm.toLowerCase())
-      );
-
-      return (
-        (dateFilter ? saleDate === dateFilter : true) &&
-        (paymentMethodFilter ? sale.paymentMethod === paymentMethodFilter.toUpperCase() : true) &&
-        (searchTerm ? includesSearchTerm : true)
-      );
-    })
-    .sort((a, b) => {
-      if (sortBy === 'date') {
-        return sortDirection === 'asc'
-          ? new Date(a.timestamp).getTime() - new Date(b.timestamp).getTime()
-          : new Date(b.timestamp).getTime() - new Date(a.timestamp).getTime();
-      } else {
-        return sortDirection === 'asc'
-          ? a.totalAmount - b.totalAmount
-          : b.totalAmount - a.totalAmount;
-      }
-    });
+    const timeout = setTimeout(() => {
+      fetchSales({
+        date: dateFilter,
+        paymentMethod: paymentMethodFilter,
+        product: searchTerm,
+        sortBy,
+        sortDirection
+      });
+    }, searchTerm ? 300 : 0);
+    return () => clearTimeout(timeout);
+  }, [dateFilter, paymentMethodFilter, searchTerm, sortBy, sortDirection, fetchSales]);
+
+  // A lista já vem filtrada e ordenada do servidor, uma página por vez
+  const filteredSales = sales;
 
   const salesSummary = {
-    total: filteredSales.reduce((sum, sale) => sum + sale.totalAmount, 0),
-    count: filteredSales.length,
+    total: summary.total,
+    count: summary.count,
     byPaymentMethod: {
-      cash: filteredSales.filter(s => s.paymentMethod === 'CASH').reduce((sum, sale) => sum + sale.totalAmount, 0),
-      pix: filteredSales.filter(s => s.paymentMethod === 'PIX').reduce((sum, sale) => sum + sale.totalAmount, 0),
-      debit: filteredSales.filter(s => s.paymentMethod === 'DEBIT').reduce((sum, sale) => sum + sale.totalAmount, 0),
-      credit: filteredSales.filter(s => s.paymentMethod === 'CREDIT').reduce((sum, sale) => sum + sale.totalAmount, 0)
+      cash: summary.byPaymentMethod.CASH,
+      pix: summary.byPaymentMethod.PIX,
+      debit: summary.byPaymentMethod.DEBIT,
+      credit: summary.byPaymentMethod.CREDIT
     },
-    topProducts: Object.entries(
-      filteredSales.flatMap(sale => sale.items)
-        .reduce((acc, item: SaleItem) => {
-          const key = item.productName;
-          if (!acc[key]) acc[key] = { quantity: 0, total: 0 };
-          acc[key].quantity += item.quantity;
-          acc[key].total += (item.priceAtSale ?? 0) * item.quantity;
-          return acc;
-        }, {} as Record<string, { quantity: number; total: number }>)
-    ).sort((a, b) => b[1].quantity - a[1].quantity)
+    topProducts: summary.topProducts
   };
 
   const toggleSort = (field: 'date' | 'amount') => {
@@ -106,58 +84,53 @@ const Reports: React.FC = () => {
     }
   };
 
+  // O CSV é gerado e enviado em partes pelo backend (sem carregar todas as vendas no navegador).
+  // Sem filtro de data, exporta todo o histórico.
   const exportToCSV = () => {
-    const headers = ['Data', 'Mesa', 'Itens', 'Total', 'Forma de Pagamento'];
-
-    const rows = filteredSales.map(sale => [
-      formatDate(sale.timestamp),
-      `Mesa ${sale.tableId}`,
-      sale.items.map((item: SaleItem) => `${item.quantity}x ${item.productName}`).join(', '),
-      `R$ ${sale.totalAmount.toFixed(2)}`,
-      getPaymentMethodName(sale.paymentMethod)
-    ]);
-
-    const csvContent = [
-      headers.join(','),
-      ...rows.map(row => row.join(','))
-    ].join('\n');
-
-    const blob = new Blob([csvContent], { type: 'text/csv;charset=utf-8;' });
-    const url = URL.createObjectURL(blob);
+    const from = dateFilter || '2000-01-01';
+    const to = dateFilter || format(new Date(), 'yyyy-MM-dd');
     const link = document.createElement('a');
-    link.setAttribute('href', url);
-    link.setAttribute('download', `relatorio_vendas_${format(new Date(), 'yyyy-MM-dd')}.csv`);
+    link.setAttribute('href', `${API_BASE_URL}/reports/sales/export?from=${from}&to=${to}`);
+    link.setAttribute('download', `relatorio_vendas_${from}_${to}.csv`);
     document.body.appendChild(link);
     link.click();
     document.body.removeChild(link);
   };
 
-  const handleClosingDay = () => {
+  // O fechamento é calculado e gravado no backend; reabrir um dia já fechado mostra o mesmo relatório
+  const closingDate = dateFilter || format(new Date(), 'yyyy-MM-dd');
+
+  const handleClosingDay = async () => {
+    const closing = await closeDay(closingDate);
+    if (!closing) return;
+    setDayClosing(closing);
+
     const closingReport = `
-FECHAMENTO DO DIA - ${format(new Date(), 'dd/MM/yyyy')}
+FECHAMENTO DO DIA - ${format(new Date(`${closing.businessDate}T00:00:00`), 'dd/MM/yyyy')}
 
 RESUMO DE VENDAS
 --------------------------
-Total de Vendas: R$ ${salesSummary.total.toFixed(2)}
-Quantidade de Vendas: ${salesSummary.count}
+Total de Vendas: R$ ${closing.totalAmount.toFixed(2)}
+Quantidade de Vendas: ${closing.saleCount}
+Itens Vendidos: ${closing.itemCount}
+Comandas Canceladas: ${closing.canceledOrderCount}
+Primeira Venda: ${closing.firstSaleAt ? formatDate(closing.firstSaleAt) : '-'}
+Última Venda: ${closing.lastSaleAt ? formatDate(closing.lastSaleAt) : '-'}
 
 VENDAS POR FORMA DE PAGAMENTO
 --------------------------
-Dinheiro: R$ ${salesSummary.byPaymentMethod.cash.toFixed(2)}
-PIX: R$ ${salesSummary.byPaymentMethod.pix.toFixed(2)}
-Cartão de Débito: R$ ${salesSummary.byPaymentMethod.debit.toFixed(2)}
-Cartão de Crédito: R$ ${salesSummary.byPaymentMethod.credit.toFixed(2)}
-
-PRODUTOS MAIS VENDIDOS
---------------------------
-${salesSummary.topProducts.slice(0, 5).map(([name, data]) =>
-      `${name}: ${data.quantity}x (R$ ${(data.total ?? 0).toFixed(2)})`
-    ).join('\n')}
+Dinheiro: R$ ${closing.cashAmount.toFixed(2)}
+PIX: R$ ${closing.pixAmount.toFixed(2)}
+Cartão de Débito: R$ ${closing.debitAmount.toFixed(2)}
+Cartão de Crédito: R$ ${closing.creditAmount.toFixed(2)}
     `;
 
     console.log(closingReport);
-    toast.success('Fechamento do dia realizado com sucesso!');
+  };
+
+  const closeDayClosingModal = () => {
     setIsDayClosingModalOpen(false);
+    setDayClosing(null);
   };
 
   const showSaleDetails = (sale: Sale) => {
@@ -458,6 +431,17 @@ ${salesSummary.topProducts.slice(0, 5).map(([name, data]) =>
             )}
           </div>
         </div>
+
+        {hasMoreSales && (
+          <div className="flex justify-center mt-4">
+            <button
+              onClick={() => fetchMoreSales()}
+              className="px-4 py-2 bg-[#2C2C2E] hover:bg-[#3C3C3E] rounded-lg transition-colors"
+            >
+              Carregar mais vendas
+            </button>
+          </div>
+        )}
       </div>
 
       {/* Sale Details Modal - já é fixed e centralizado, deve ser responsivo */}
@@ -553,7 +537,7 @@ ${salesSummary.topProducts.slice(0, 5).map(([name, data]) =>
             <div className="flex justify-between items-start mb-4">
               <h2 className="text-xl font-bold">Fechamento do Dia</h2>
               <button
-                onClick={() => setIsDayClosingModalOpen(false)}
+                onClick={closeDayClosingModal}
                 className="p-1 hover:bg-[#3C3C3E] rounded-full transition-colors"
               >
                 <X className="w-6 h-6" />
@@ -561,69 +545,86 @@ ${salesSummary.topProducts.slice(0, 5).map(([name, data]) =>
             </div>
 
             <div className="space-y-6">
-              <div className="bg-[#1C1C1E] p-4 rounded-lg">
-                <h3 className="text-lg font-medium mb-3">Resumo de Vendas</h3>
-                <div className="space-y-2">
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">Total em Vendas:</span>
-                    <span className="font-medium">R$ {salesSummary.total.toFixed(2)}</span>
-                  </div>
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">Quantidade de Vendas:</span>
-                    <span className="font-medium">{salesSummary.count}</span>
-                  </div>
+              {!dayClosing ? (
+                <div className="bg-[#1C1C1E] p-4 rounded-lg">
+                  <p className="text-[#A0A0A0]">
+                    Fechar o dia {format(new Date(`${closingDate}T00:00:00`), 'dd/MM/yyyy')}? Os totais serão calculados e
+                    registrados no servidor, e as vendas deste dia não poderão mais ser canceladas.
+                  </p>
                 </div>
-              </div>
-
-              <div className="bg-[#1C1C1E] p-4 rounded-lg">
-                <h3 className="text-lg font-medium mb-3">Por Forma de Pagamento</h3>
-                <div className="space-y-2">
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">Dinheiro:</span>
-                    <span className="font-medium">R$ {salesSummary.byPaymentMethod.cash.toFixed(2)}</span>
-                  </div>
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">PIX:</span>
-                    <span className="font-medium">R$ {salesSummary.byPaymentMethod.pix.toFixed(2)}</span>
-                  </div>
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">Cartão de Débito:</span>
-                    <span className="font-medium">R$ {salesSummary.byPaymentMethod.debit.toFixed(2)}</span>
-                  </div>
-                  <div className="flex justify-between">
-                    <span className="text-[#A0A0A0]">Cartão de Crédito:</span>
-                    <span className="font-medium">R$ {salesSummary.byPaymentMethod.credit.toFixed(2)}</span>
+              ) : (
+                <>
+                  <div className="bg-[#1C1C1E] p-4 rounded-lg">
+                    <h3 className="text-lg font-medium mb-3">Resumo de Vendas</h3>
+                    <div className="space-y-2">
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Total em Vendas:</span>
+                        <span className="font-medium">R$ {dayClosing.totalAmount.toFixed(2)}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Quantidade de Vendas:</span>
+                        <span className="font-medium">{dayClosing.saleCount}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Itens Vendidos:</span>
+                        <span className="font-medium">{dayClosing.itemCount}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Comandas Canceladas:</span>
+                        <span className="font-medium">{dayClosing.canceledOrderCount}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Primeira / Última Venda:</span>
+                        <span className="font-medium">
+                          {dayClosing.firstSaleAt ? formatDate(dayClosing.firstSaleAt) : '-'} / {dayClosing.lastSaleAt ? formatDate(dayClosing.lastSaleAt) : '-'}
+                        </span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Fechado em:</span>
+                        <span className="font-medium">{formatDate(dayClosing.closedAt)}</span>
+                      </div>
+                    </div>
                   </div>
-                </div>
-              </div>
 
-              <div className="bg-[#1C1C1E] p-4 rounded-lg">
-                <h3 className="text-lg font-medium mb-3">Produtos Mais Vendidos</h3>
-                <div className="space-y-2">
-                  {salesSummary.topProducts.slice(0, 5).map(([name, data]) => (
-                    <div key={name} className="flex justify-between">
-                      <span className="text-[#A0A0A0]">{name}:</span>
-                      <span className="font-medium">
-                        {data.quantity}x (R$ ${(data.total ?? 0).toFixed(2)})
-                      </span>
+                  <div className="bg-[#1C1C1E] p-4 rounded-lg">
+                    <h3 className="text-lg font-medium mb-3">Por Forma de Pagamento</h3>
+                    <div className="space-y-2">
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Dinheiro:</span>
+                        <span className="font-medium">R$ {dayClosing.cashAmount.toFixed(2)}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">PIX:</span>
+                        <span className="font-medium">R$ {dayClosing.pixAmount.toFixed(2)}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Cartão de Débito:</span>
+                        <span className="font-medium">R$ {dayClosing.debitAmount.toFixed(2)}</span>
+                      </div>
+                      <div className="flex justify-between">
+                        <span className="text-[#A0A0A0]">Cartão de Crédito:</span>
+                        <span className="font-medium">R$ {dayClosing.creditAmount.toFixed(2)}</span>
+                      </div>
                     </div>
-                  ))}
-                </div>
-              </div>
+                  </div>
+                </>
+              )}
 
               <div className="flex flex-col sm:flex-row justify-end space-y-3 sm:space-y-0 sm:space-x-3">
                 <button
-                  onClick={() => setIsDayClosingModalOpen(false)}
+                  onClick={closeDayClosingModal}
                   className="px-4 py-2 bg-[#1C1C1E] hover:bg-[#3C3C3E] rounded-lg transition-colors w-full sm:w-auto"
                 >
-                  Cancelar
-                </button>
-                <button
-                  onClick={handleClosingDay}
-                  className="px-4 py-2 bg-[#D4AF37] text-[#1C1C1E] hover:bg-[#D4AF37]/90 rounded-lg transition-colors w-full sm:w-auto"
-                >
-                  Confirmar Fechamento
+                  {dayClosing ? 'Fechar' : 'Cancelar'}
                 </button>
+                {!dayClosing && (
+                  <button
+                    onClick={handleClosingDay}
+                    className="px-4 py-2 bg-[#D4AF37] text-[#1C1C1E] hover:bg-[#D4AF37]/90 rounded-lg transition-colors w-full sm:w-auto"
+                  >
+                    Confirmar Fechamento
+                  </button>
+                )}
               </div>
             </div>
           </div>